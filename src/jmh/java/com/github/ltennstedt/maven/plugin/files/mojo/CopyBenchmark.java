@@ -0,0 +1,146 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link CopyMojo} with its transfer strategies and link modes
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CopyBenchmark {
+    /**
+     * Shape of the source tree
+     *
+     * @since 0.0.1
+     */
+    @Param({"TINY_FILES", "HUGE_FILES", "DEEP", "WIDE"})
+    public TreeShape shape;
+
+    /**
+     * Transfer strategy
+     *
+     * @since 0.0.1
+     */
+    @Param({"files", "channel"})
+    public String transfer;
+
+    /**
+     * Link mode
+     *
+     * @since 0.0.1
+     */
+    @Param({"copy", "hardlink-or-copy"})
+    public String linkMode;
+
+    /**
+     * Number of threads
+     *
+     * @since 0.0.1
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    private SyntheticTree tree;
+    private Path target;
+
+    /**
+     * Generates the source tree
+     *
+     * @throws IOException if the tree cannot be generated
+     * @since 0.0.1
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        tree = SyntheticTree.generate(shape);
+        target = SyntheticTree.newDirectory("copy-");
+    }
+
+    /**
+     * Deletes the target of the previous invocation
+     *
+     * @throws IOException if the target cannot be deleted
+     * @since 0.0.1
+     */
+    @Setup(Level.Invocation)
+    public void clean() throws IOException {
+        if (Files.exists(target)) {
+            new TreeDeleter(threads).delete(target);
+        }
+    }
+
+    /**
+     * Deletes the source and target trees
+     *
+     * @throws IOException if a tree cannot be deleted
+     * @since 0.0.1
+     */
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        clean();
+        tree.delete();
+    }
+
+    /**
+     * Copies the source tree into the target
+     *
+     * @param transferred counters
+     * @throws MojoExecutionException if copying fails
+     * @throws MojoFailureException if the configuration is invalid
+     * @since 0.0.1
+     */
+    @Benchmark
+    public void copy(final Transferred transferred) throws MojoExecutionException, MojoFailureException {
+        final var mojo = new CopyMojo();
+        mojo.setLog(new QuietLog());
+        mojo.setFile(tree.getRoot().toFile());
+        mojo.setInto(new File(target.toString()));
+        mojo.setTransfer(transfer);
+        mojo.setLinkMode(linkMode);
+        mojo.setThreads(threads);
+        mojo.execute();
+        transferred.add(tree);
+    }
+}
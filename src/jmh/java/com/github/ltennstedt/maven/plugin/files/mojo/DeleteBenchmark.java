@@ -0,0 +1,149 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.github.ltennstedt.maven.plugin.files.io.TrashCollector;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link DeleteMojo} with one and more threads and in the background
+ *
+ * <p>
+ * In the asynchronous mode only the rename is measured; the background deletion is awaited after every invocation.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DeleteBenchmark {
+    /**
+     * Shape of the deleted tree
+     *
+     * @since 0.0.1
+     */
+    @Param({"TINY_FILES", "HUGE_FILES", "DEEP", "WIDE"})
+    public TreeShape shape;
+
+    /**
+     * Number of threads
+     *
+     * @since 0.0.1
+     */
+    @Param({"1", "4"})
+    public int threads;
+
+    /**
+     * Whether the tree is deleted in the background
+     *
+     * @since 0.0.1
+     */
+    @Param({"false", "true"})
+    public boolean async;
+
+    private SyntheticTree tree;
+    private Path victim;
+
+    /**
+     * Generates the template tree
+     *
+     * @throws IOException if the tree cannot be generated
+     * @since 0.0.1
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        tree = SyntheticTree.generate(shape);
+        victim = SyntheticTree.newDirectory("delete-").resolve("victim");
+    }
+
+    /**
+     * Copies the template tree to the deleted tree
+     *
+     * @throws IOException if the tree cannot be copied
+     * @since 0.0.1
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException {
+        tree.copyTo(victim);
+    }
+
+    /**
+     * Waits for background deletions
+     *
+     * @throws IOException if waiting was interrupted
+     * @since 0.0.1
+     */
+    @TearDown(Level.Invocation)
+    public void await() throws IOException {
+        TrashCollector.awaitPending();
+    }
+
+    /**
+     * Deletes the template tree
+     *
+     * @throws IOException if the tree cannot be deleted
+     * @since 0.0.1
+     */
+    @TearDown(Level.Trial)
+    public void deleteTemplate() throws IOException {
+        tree.delete();
+        Files.deleteIfExists(victim.getParent());
+    }
+
+    /**
+     * Deletes the tree
+     *
+     * @param transferred counters
+     * @throws MojoExecutionException if deleting fails
+     * @throws MojoFailureException if the configuration is invalid
+     * @since 0.0.1
+     */
+    @Benchmark
+    public void delete(final Transferred transferred) throws MojoExecutionException, MojoFailureException {
+        final var mojo = new DeleteMojo();
+        mojo.setLog(new QuietLog());
+        mojo.setFile(new File(victim.toString()));
+        mojo.setThreads(threads);
+        mojo.setAsync(async);
+        mojo.execute();
+        transferred.add(tree);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of {@link MoveMojo} with a single rename and with a walk over all entries
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MoveBenchmark {
+    /**
+     * Shape of the source tree
+     *
+     * @since 0.0.1
+     */
+    @Param({"TINY_FILES", "HUGE_FILES", "DEEP", "WIDE"})
+    public TreeShape shape;
+
+    /**
+     * rename moves the whole tree at once, walk moves every file because an include pattern is set
+     *
+     * @since 0.0.1
+     */
+    @Param({"rename", "walk"})
+    public String strategy;
+
+    private SyntheticTree tree;
+    private Path work;
+
+    /**
+     * Generates the template tree
+     *
+     * @throws IOException if the tree cannot be generated
+     * @since 0.0.1
+     */
+    @Setup(Level.Trial)
+    public void generate() throws IOException {
+        tree = SyntheticTree.generate(shape);
+        work = SyntheticTree.newDirectory("move-");
+    }
+
+    /**
+     * Copies the template tree to a fresh source
+     *
+     * @throws IOException if the source cannot be created
+     * @since 0.0.1
+     */
+    @Setup(Level.Invocation)
+    public void prepare() throws IOException {
+        clean();
+        Files.createDirectories(work);
+        tree.copyTo(work.resolve("source"));
+    }
+
+    /**
+     * Deletes the template and the work trees
+     *
+     * @throws IOException if a tree cannot be deleted
+     * @since 0.0.1
+     */
+    @TearDown(Level.Trial)
+    public void delete() throws IOException {
+        clean();
+        tree.delete();
+    }
+
+    /**
+     * Moves the source into the target
+     *
+     * @param transferred counters
+     * @throws MojoExecutionException if moving fails
+     * @throws MojoFailureException if the configuration is invalid
+     * @since 0.0.1
+     */
+    @Benchmark
+    public void move(final Transferred transferred) throws MojoExecutionException, MojoFailureException {
+        final var mojo = new MoveMojo();
+        mojo.setLog(new QuietLog());
+        mojo.setFile(new File(work.resolve("source").toString()));
+        mojo.setInto(new File(work.resolve("target").toString()));
+        if ("walk".equals(strategy)) {
+            mojo.setIncludes(List.of("**"));
+        }
+        mojo.execute();
+        transferred.add(tree);
+    }
+
+    private void clean() throws IOException {
+        if (Files.exists(work)) {
+            new TreeDeleter(Runtime.getRuntime().availableProcessors()).delete(work);
+        }
+    }
+}
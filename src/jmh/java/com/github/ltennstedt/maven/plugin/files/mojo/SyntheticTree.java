@@ -0,0 +1,116 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import static java.util.Objects.requireNonNull;
+
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Random;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Tree of generated files with random content
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+final class SyntheticTree {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final double MEBIBYTE = 1024.0 * 1024.0;
+
+    private final Path root;
+    private long files;
+    private long bytes;
+
+    private SyntheticTree(final Path root) {
+        this.root = root;
+    }
+
+    /**
+     * Generates a tree of the shape in a new directory below the benchmark directory, i.e. the system property
+     * benchmark.dir or target/benchmark
+     */
+    static SyntheticTree generate(final TreeShape shape) throws IOException {
+        requireNonNull(shape, "shape");
+        final var tree = new SyntheticTree(newDirectory(shape.name().toLowerCase(Locale.ROOT) + "-"));
+        final var content = new byte[BUFFER_SIZE];
+        new Random(shape.ordinal()).nextBytes(content);
+        tree.fill(tree.root, shape, 0, content);
+        return tree;
+    }
+
+    /**
+     * Returns a new empty directory below the benchmark directory
+     */
+    static Path newDirectory(final String prefix) throws IOException {
+        final var parent = Path.of(System.getProperty("benchmark.dir", "target/benchmark")).toAbsolutePath();
+        Files.createDirectories(parent);
+        return Files.createTempDirectory(parent, prefix);
+    }
+
+    /**
+     * Copies the tree to the target which must not exist
+     */
+    void copyTo(final Path target) throws IOException {
+        FileUtils.copyDirectory(root.toFile(), target.toFile());
+    }
+
+    /**
+     * Deletes the tree
+     */
+    void delete() throws IOException {
+        new TreeDeleter(Runtime.getRuntime().availableProcessors()).delete(root);
+    }
+
+    Path getRoot() {
+        return root;
+    }
+
+    long getFiles() {
+        return files;
+    }
+
+    double getMegabytes() {
+        return bytes / MEBIBYTE;
+    }
+
+    private void fill(final Path dir, final TreeShape shape, final int level, final byte[] content)
+            throws IOException {
+        Files.createDirectories(dir);
+        for (var i = 0; i < shape.getFilesPerDirectory(); i++) {
+            try (var out = Files.newOutputStream(dir.resolve("file" + i + ".bin"))) {
+                var remaining = shape.getFileSize();
+                while (remaining > 0L) {
+                    final var length = (int) Math.min(content.length, remaining);
+                    out.write(content, 0, length);
+                    remaining -= length;
+                }
+            }
+            files++;
+            bytes += shape.getFileSize();
+        }
+        if (level < shape.getDepth()) {
+            for (var i = 0; i < shape.getWidth(); i++) {
+                fill(dir.resolve("dir" + i), shape, level + 1, content);
+            }
+        }
+    }
+}
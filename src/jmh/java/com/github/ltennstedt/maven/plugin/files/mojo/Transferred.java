@@ -0,0 +1,63 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary results which JMH reports as files/s and MiB/s next to the operations per second
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+@State(Scope.Thread)
+public class Transferred {
+    /**
+     * Number of processed files
+     *
+     * @since 0.0.1
+     */
+    public long files;
+
+    /**
+     * Number of processed MiB
+     *
+     * @since 0.0.1
+     */
+    public double megabytes;
+
+    /**
+     * Resets the counters before every iteration
+     *
+     * @since 0.0.1
+     */
+    @Setup(Level.Iteration)
+    public void reset() {
+        files = 0L;
+        megabytes = 0.0;
+    }
+
+    void add(final SyntheticTree tree) {
+        files += tree.getFiles();
+        megabytes += tree.getMegabytes();
+    }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+/**
+ * Shapes of the synthetic trees the benchmarks run on
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+public enum TreeShape {
+    /**
+     * Many tiny files: 11100 files of 1 KiB in 111 directories
+     *
+     * @since 0.0.1
+     */
+    TINY_FILES(2, 10, 100, 1024L),
+
+    /**
+     * Few huge files: 4 files of 64 MiB
+     *
+     * @since 0.0.1
+     */
+    HUGE_FILES(0, 0, 4, 64L * 1024L * 1024L),
+
+    /**
+     * Deep tree: a chain of 128 nested directories with 4 files of 4 KiB each
+     *
+     * @since 0.0.1
+     */
+    DEEP(128, 1, 4, 4096L),
+
+    /**
+     * Wide tree: 2000 sibling directories with 2 files of 4 KiB each
+     *
+     * @since 0.0.1
+     */
+    WIDE(1, 2000, 2, 4096L);
+
+    private final int depth;
+    private final int width;
+    private final int filesPerDirectory;
+    private final long fileSize;
+
+    TreeShape(final int depth, final int width, final int filesPerDirectory, final long fileSize) {
+        this.depth = depth;
+        this.width = width;
+        this.filesPerDirectory = filesPerDirectory;
+        this.fileSize = fileSize;
+    }
+
+    int getDepth() {
+        return depth;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getFilesPerDirectory() {
+        return filesPerDirectory;
+    }
+
+    long getFileSize() {
+        return fileSize;
+    }
+}
@@ -0,0 +1,310 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.EnumSet;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipFile;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+
+/**
+ * Extracts the files of an archive into a target directory
+ *
+ * <p>
+ * Zip entries are listed from the central directory and decompressed concurrently by the workers of a
+ * {@link TaskRunner}, all reading from one shared {@link ZipFile}. Tar streams can only be read sequentially, so small
+ * entries are buffered and written by the workers while large entries are written by the reading thread. Either way
+ * every entry is written within the budget of the {@link IoScheduler} and its failure is collected by the runner.
+ * </p>
+ *
+ * <p>
+ * Extracted files get the last modified time of their entry. In incremental mode a file whose target has the size and
+ * last modified time of its entry is skipped, like an unchanged file of a regular copy. The {@link PathFilter}
+ * applies to directory entries as well. A directory entry naming the target directory itself, e.g. {@code ./}, is
+ * ignored, while entries which would end up outside the target directory are rejected.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class ArchiveExtractor {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_BUFFERED_ENTRY_SIZE = 64 * 1024;
+    private static final int OWNER_READ_BIT = 0x100;
+
+    private final int threads;
+    private final ExecutorMode executorMode;
+    private final PathFilter pathFilter;
+    private final OperationMetrics metrics;
+    private boolean incremental;
+    private IoScheduler scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads extracting entries concurrently
+     * @param executorMode kind of threads
+     * @param pathFilter filter for the entries
+     * @param metrics metrics which are updated while extracting
+     * @since 0.0.1
+     */
+    public ArchiveExtractor(final int threads, final ExecutorMode executorMode, final PathFilter pathFilter,
+            final OperationMetrics metrics) {
+        this.threads = Math.max(1, threads);
+        this.executorMode = requireNonNull(executorMode, "executorMode");
+        this.pathFilter = requireNonNull(pathFilter, "pathFilter");
+        this.metrics = requireNonNull(metrics, "metrics");
+    }
+
+    /**
+     * Extracts the archive into the target directory and waits until all entries have been written
+     *
+     * @param archive archive file
+     * @param format archive format
+     * @param target target directory
+     * @throws FailedEntriesException if entries could not be extracted
+     * @throws IOException if the archive cannot be read
+     * @since 0.0.1
+     */
+    public void extract(final Path archive, final ArchiveFormat format, final Path target) throws IOException {
+        requireNonNull(archive, "archive");
+        requireNonNull(format, "format");
+        requireNonNull(target, "target");
+        final var root = target.toAbsolutePath().normalize();
+        Files.createDirectories(root);
+        try (var runner = new TaskRunner(threads, executorMode)) {
+            runner.setScheduler(scheduler);
+            if (format == ArchiveFormat.ZIP) {
+                extractZip(archive, root, runner);
+            } else {
+                extractTar(archive, format, root, runner);
+            }
+        }
+    }
+
+    /**
+     * Sets whether files whose target has the size and last modified time of their entry are skipped
+     *
+     * @param incremental true if unchanged files are skipped
+     * @since 0.0.1
+     */
+    public void setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    /**
+     * Sets the {@link IoScheduler} within whose budget the workers write the entries; null, which is the default,
+     * writes them unthrottled
+     *
+     * @param scheduler scheduler or null
+     * @since 0.0.1
+     */
+    public void setScheduler(final IoScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("threads", threads).add("executorMode", executorMode)
+                .add("pathFilter", pathFilter).add("incremental", incremental).toString();
+    }
+
+    /**
+     * Lists the entries from the central directory and extracts every selected file on a worker
+     */
+    private void extractZip(final Path archive, final Path root, final TaskRunner runner) throws IOException {
+        try (var zip = new ZipFile(archive.toFile())) {
+            final var entries = zip.entries();
+            while (entries.hasMoreElements() && !runner.isFailed()) {
+                final var entry = entries.nextElement();
+                final var to = resolve(root, entry.getName());
+                if (entry.isDirectory()) {
+                    createDirectory(root, to);
+                    continue;
+                }
+                if (!isSelected(root, to)) {
+                    continue;
+                }
+                runner.submit(to, () -> metrics.measure(() -> {
+                    try (var in = zip.getInputStream(entry)) {
+                        write(in, to, entry.getSize(), entry.getTime(), -1);
+                    }
+                }));
+            }
+            metrics.walked();
+            runner.await();
+        }
+    }
+
+    /**
+     * Reads the tar stream sequentially and hands small files to the workers while large files are written by the
+     * reading thread, both within the budget of the scheduler
+     */
+    private void extractTar(final Path archive, final ArchiveFormat format, final Path root,
+            final TaskRunner runner) throws IOException {
+        try (var tar = new TarArchiveInputStream(decompress(
+                new BufferedInputStream(Files.newInputStream(archive), BUFFER_SIZE), format))) {
+            for (var entry = tar.getNextEntry(); entry != null && !runner.isFailed();
+                    entry = tar.getNextEntry()) {
+                final var to = resolve(root, entry.getName());
+                if (entry.isDirectory()) {
+                    createDirectory(root, to);
+                    continue;
+                }
+                if (!entry.isFile()) {
+                    metrics.skipped();
+                    continue;
+                }
+                if (!isSelected(root, to)) {
+                    continue;
+                }
+                final var size = entry.getSize();
+                final var lastModified = entry.getModTime().getTime();
+                final var mode = entry.getMode();
+                if (size <= MAX_BUFFERED_ENTRY_SIZE) {
+                    final var content = tar.readAllBytes();
+                    runner.submit(to, () -> metrics.measure(
+                            () -> write(new ByteArrayInputStream(content), to, size, lastModified, mode)));
+                } else {
+                    runner.execute(to, () -> metrics.measure(() -> write(tar, to, size, lastModified, mode)));
+                }
+            }
+            metrics.walked();
+            runner.await();
+        }
+    }
+
+    /**
+     * Creates the directory unless it is the target directory itself or not selected; with includes directories are
+     * only created as parents of selected files
+     */
+    private void createDirectory(final Path root, final Path dir) throws IOException {
+        if (dir.equals(root)) {
+            return;
+        }
+        metrics.directoryVisited();
+        if (!pathFilter.hasIncludes() && pathFilter.isSelected(root.relativize(dir))) {
+            Files.createDirectories(dir);
+        }
+    }
+
+    private boolean isSelected(final Path root, final Path file) throws IOException {
+        if (file.equals(root)) {
+            throw new IOException("Entry " + file + " is the target directory but not a directory");
+        }
+        if (!pathFilter.isSelected(root.relativize(file))) {
+            metrics.skipped();
+            return false;
+        }
+        metrics.fileVisited();
+        return true;
+    }
+
+    /**
+     * Writes the content to the target unless it is up to date; a mode of -1 leaves the permissions untouched
+     */
+    private void write(final InputStream in, final Path to, final long size, final long lastModified,
+            final int mode) throws IOException {
+        if (isUpToDate(to, size, lastModified)) {
+            metrics.skipped();
+            return;
+        }
+        Files.createDirectories(to.getParent());
+        Files.copy(in, to, StandardCopyOption.REPLACE_EXISTING);
+        if (lastModified >= 0L) {
+            Files.setLastModifiedTime(to, FileTime.fromMillis(lastModified));
+        }
+        if (mode != -1) {
+            setPermissions(to, mode);
+        }
+        metrics.transferred(size);
+    }
+
+    private boolean isUpToDate(final Path to, final long size, final long lastModified) throws IOException {
+        if (!incremental || size < 0L || lastModified < 0L) {
+            return false;
+        }
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(to, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException exception) {
+            return false;
+        }
+        return attributes.isRegularFile() && attributes.size() == size
+                && attributes.lastModifiedTime().toMillis() == lastModified;
+    }
+
+    private static Path resolve(final Path root, final String name) throws IOException {
+        final var to = root.resolve(name).normalize();
+        if (!to.startsWith(root)) {
+            throw new IOException("Entry " + name + " is outside of " + root);
+        }
+        return to;
+    }
+
+    private static InputStream decompress(final InputStream in, final ArchiveFormat format) throws IOException {
+        switch (format) {
+            case TAR_GZ:
+                return new GZIPInputStream(in, BUFFER_SIZE);
+            case TAR_ZST:
+                return new ZstdCompressorInputStream(in);
+            default:
+                return in;
+        }
+    }
+
+    /**
+     * Applies the permission bits of the Unix mode where POSIX permissions are supported
+     */
+    private static void setPermissions(final Path file, final int mode) throws IOException {
+        final var view = Files.getFileAttributeView(file, PosixFileAttributeView.class);
+        if (view == null) {
+            return;
+        }
+        final var permissions = EnumSet.noneOf(PosixFilePermission.class);
+        for (final var permission : PosixFilePermission.values()) {
+            if ((mode & OWNER_READ_BIT >> permission.ordinal()) != 0) {
+                permissions.add(permission);
+            }
+        }
+        view.setPermissions(permissions);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import java.util.Locale;
+import org.apache.commons.compress.compressors.zstandard.ZstdUtils;
+
+/**
+ * Formats of archives into which a tree is written
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public enum ArchiveFormat {
+    /**
+     * Zip archive whose entries are deflated concurrently
+     *
+     * @since 0.0.1
+     */
+    ZIP,
+
+    /**
+     * Uncompressed tar archive
+     *
+     * @since 0.0.1
+     */
+    TAR,
+
+    /**
+     * Tar archive compressed with gzip in blocks which are compressed concurrently
+     *
+     * @since 0.0.1
+     */
+    TAR_GZ,
+
+    /**
+     * Tar archive compressed with Zstandard; requires com.github.luben:zstd-jni on the class path
+     *
+     * @since 0.0.1
+     */
+    TAR_ZST;
+
+    /**
+     * Returns true if archives of this format can be written, which for {@link #TAR_ZST} depends on the class path
+     *
+     * @return true if the format is supported
+     * @since 0.0.1
+     */
+    public boolean isSupported() {
+        return this != TAR_ZST || ZstdUtils.isZstdCompressionAvailable();
+    }
+
+    /**
+     * Returns the format for a configuration value like {@code tar.gz}; {@code tgz} is accepted as well
+     *
+     * @param value configuration value
+     * @return archive format
+     * @throws IllegalArgumentException if there is no such format
+     * @since 0.0.1
+     */
+    public static ArchiveFormat of(final String value) {
+        requireNonNull(value, "value");
+        final var normalized = value.trim().toUpperCase(Locale.ROOT).replace('.', '_').replace('-', '_');
+        return "TGZ".equals(normalized) ? TAR_GZ : valueOf(normalized);
+    }
+
+    /**
+     * Returns the format for the extension of a file name, e.g. {@code sdk.tar.gz}; jar, war and ear files are zip
+     * archives
+     *
+     * @param fileName file name
+     * @return archive format
+     * @throws IllegalArgumentException if the extension does not denote an archive
+     * @since 0.0.1
+     */
+    public static ArchiveFormat ofFileName(final String fileName) {
+        requireNonNull(fileName, "fileName");
+        final var name = fileName.toLowerCase(Locale.ROOT);
+        if (name.endsWith(".tar.gz") || name.endsWith(".tgz")) {
+            return TAR_GZ;
+        }
+        if (name.endsWith(".tar.zst")) {
+            return TAR_ZST;
+        }
+        if (name.endsWith(".tar")) {
+            return TAR;
+        }
+        if (name.endsWith(".zip") || name.endsWith(".jar") || name.endsWith(".war") || name.endsWith(".ear")) {
+            return ZIP;
+        }
+        throw new IllegalArgumentException("Unknown archive format of " + fileName);
+    }
+}
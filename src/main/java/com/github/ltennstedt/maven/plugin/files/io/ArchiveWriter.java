@@ -0,0 +1,230 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.ZipEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ParallelScatterZipCreator;
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorOutputStream;
+
+/**
+ * Writes files and directories into an archive without copying them anywhere first
+ *
+ * <p>
+ * Entries are added by a single thread. For {@link ArchiveFormat#ZIP} every file is deflated into a scatter file of
+ * its worker and the scatter files are gathered into the archive on {@link #close()}; for
+ * {@link ArchiveFormat#TAR_GZ} the tar stream is compressed in blocks concurrently. Tar and Zstandard streams are
+ * written sequentially.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class ArchiveWriter implements Closeable {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int FILE_MODE = 0x81A4;
+    private static final int DIRECTORY_MODE = 0x41ED;
+    private static final int PERMISSION_BITS = 0x1FF;
+    private static final int OWNER_READ_BIT = 0x100;
+
+    private final Path file;
+    private final ArchiveFormat format;
+    private final ZipArchiveOutputStream zip;
+    private final ParallelScatterZipCreator scatter;
+    private final TarArchiveOutputStream tar;
+
+    /**
+     * Constructor
+     *
+     * @param file archive file which is replaced if it exists
+     * @param format archive format
+     * @param threads number of threads compressing concurrently
+     * @throws IOException if the archive cannot be created
+     * @throws IllegalStateException if the format is {@link ArchiveFormat#TAR_ZST} and zstd-jni is not available
+     * @since 0.0.1
+     */
+    public ArchiveWriter(final Path file, final ArchiveFormat format, final int threads) throws IOException {
+        this.file = requireNonNull(file, "file");
+        this.format = requireNonNull(format, "format");
+        if (!format.isSupported()) {
+            throw new IllegalStateException("tar.zst requires com.github.luben:zstd-jni as plugin dependency");
+        }
+        if (format == ArchiveFormat.ZIP) {
+            zip = new ZipArchiveOutputStream(file.toFile());
+            scatter = new ParallelScatterZipCreator(ExecutorMode.PLATFORM.newExecutor(Math.max(1, threads)));
+            tar = null;
+        } else {
+            zip = null;
+            scatter = null;
+            tar = new TarArchiveOutputStream(compress(new BufferedOutputStream(Files.newOutputStream(file),
+                    BUFFER_SIZE), format, Math.max(1, threads)));
+            tar.setLongFileMode(TarArchiveOutputStream.LONGFILE_POSIX);
+            tar.setBigNumberMode(TarArchiveOutputStream.BIGNUMBER_POSIX);
+        }
+    }
+
+    /**
+     * Adds a directory entry
+     *
+     * @param dir directory
+     * @param attributes attributes of the directory
+     * @param name name of the entry with / as separator
+     * @throws IOException if the entry cannot be written
+     * @since 0.0.1
+     */
+    public void addDirectory(final Path dir, final BasicFileAttributes attributes, final String name)
+            throws IOException {
+        requireNonNull(dir, "dir");
+        requireNonNull(attributes, "attributes");
+        requireNonNull(name, "name");
+        final var entryName = name.endsWith("/") ? name : name + "/";
+        final var mode = mode(dir, DIRECTORY_MODE);
+        if (zip == null) {
+            final var entry = new TarArchiveEntry(entryName);
+            entry.setModTime(attributes.lastModifiedTime().toMillis());
+            entry.setMode(mode);
+            tar.putArchiveEntry(entry);
+            tar.closeArchiveEntry();
+        } else {
+            final var entry = new ZipArchiveEntry(entryName);
+            entry.setTime(attributes.lastModifiedTime().toMillis());
+            entry.setUnixMode(mode);
+            entry.setMethod(ZipEntry.STORED);
+            scatter.addArchiveEntry(entry, InputStream::nullInputStream);
+        }
+    }
+
+    /**
+     * Adds a file entry; for zip the file is read and deflated later by a worker
+     *
+     * @param source file
+     * @param attributes attributes of the file
+     * @param name name of the entry with / as separator
+     * @throws IOException if the entry cannot be written
+     * @since 0.0.1
+     */
+    public void addFile(final Path source, final BasicFileAttributes attributes, final String name)
+            throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(attributes, "attributes");
+        requireNonNull(name, "name");
+        final var mode = mode(source, FILE_MODE);
+        if (zip == null) {
+            final var entry = new TarArchiveEntry(name);
+            entry.setModTime(attributes.lastModifiedTime().toMillis());
+            entry.setMode(mode);
+            entry.setSize(attributes.size());
+            tar.putArchiveEntry(entry);
+            Files.copy(source, tar);
+            tar.closeArchiveEntry();
+        } else {
+            final var entry = new ZipArchiveEntry(name);
+            entry.setTime(attributes.lastModifiedTime().toMillis());
+            entry.setUnixMode(mode);
+            entry.setMethod(ZipEntry.DEFLATED);
+            scatter.addArchiveEntry(entry, () -> {
+                try {
+                    return Files.newInputStream(source);
+                } catch (final IOException exception) {
+                    throw new UncheckedIOException(exception);
+                }
+            });
+        }
+    }
+
+    /**
+     * Waits for the workers and completes the archive
+     *
+     * @throws IOException if the archive cannot be completed
+     * @since 0.0.1
+     */
+    @Override
+    public void close() throws IOException {
+        if (zip == null) {
+            tar.close();
+            return;
+        }
+        try (zip) {
+            scatter.writeTo(zip);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Writing " + file + " was interrupted");
+            interrupted.initCause(exception);
+            throw interrupted;
+        } catch (final ExecutionException exception) {
+            throw new IOException("Writing " + file + " failed", exception);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("format", format).toString();
+    }
+
+    private static OutputStream compress(final OutputStream out, final ArchiveFormat format, final int threads)
+            throws IOException {
+        switch (format) {
+            case TAR_GZ:
+                return new ParallelGzipOutputStream(out, threads);
+            case TAR_ZST:
+                return new ZstdCompressorOutputStream(out);
+            default:
+                return out;
+        }
+    }
+
+    /**
+     * Returns the Unix mode of the file type and POSIX permissions, or the default where POSIX is not supported; the
+     * default modes are 0100644 for files and 040755 for directories
+     */
+    private static int mode(final Path path, final int defaultMode) throws IOException {
+        final var view = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+        if (view == null) {
+            return defaultMode;
+        }
+        var mode = defaultMode & ~PERMISSION_BITS;
+        for (final var permission : view.readAttributes().permissions()) {
+            mode |= OWNER_READ_BIT >> permission.ordinal();
+        }
+        return mode;
+    }
+}
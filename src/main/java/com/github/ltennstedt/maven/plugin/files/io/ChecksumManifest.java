@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Digests of the files copied into a target, written to a text file next to the target
+ *
+ * <p>
+ * Every line holds the hexadecimal digest, two spaces and the path relative to the root, so for SHA-256 the file can
+ * be checked with {@code sha256sum -c} in the root directory. Targets which have not been copied again in a run keep
+ * the digest recorded by the previous run; the digest is only computed from the source if there is none.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class ChecksumManifest {
+    private static final String SEPARATOR = "  ";
+
+    private final Path file;
+    private final Path root;
+    private final String algorithm;
+    private final Map<String, String> previous;
+    private final Map<String, String> current = new ConcurrentHashMap<>();
+
+    private ChecksumManifest(final Path file, final Path root, final String algorithm,
+            final Map<String, String> previous) {
+        this.file = file;
+        this.root = root;
+        this.algorithm = algorithm;
+        this.previous = previous;
+    }
+
+    /**
+     * Returns the manifest file next to the target, e.g. {@code classes.sha256} for {@code classes} and SHA-256
+     *
+     * @param target target file or directory
+     * @param algorithm digest algorithm
+     * @return manifest file
+     * @since 0.0.1
+     */
+    public static Path fileFor(final Path target, final String algorithm) {
+        requireNonNull(target, "target");
+        requireNonNull(algorithm, "algorithm");
+        final var absolute = target.toAbsolutePath();
+        return absolute.resolveSibling(
+                absolute.getFileName() + "." + algorithm.toLowerCase(Locale.ROOT).replace("-", ""));
+    }
+
+    /**
+     * Loads the manifest; a missing or unreadable manifest results in an empty one
+     *
+     * @param file manifest file
+     * @param root directory against which the paths are relativized
+     * @param algorithm digest algorithm, e.g. SHA-256 or CRC32C
+     * @return manifest
+     * @throws IllegalArgumentException if the algorithm is not supported
+     * @since 0.0.1
+     */
+    public static ChecksumManifest load(final Path file, final Path root, final String algorithm) {
+        requireNonNull(file, "file");
+        requireNonNull(root, "root");
+        Digests.newDigest(algorithm);
+        final Map<String, String> previous = new ConcurrentHashMap<>();
+        if (Files.isRegularFile(file)) {
+            try {
+                for (final var line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    final var index = line.indexOf(SEPARATOR);
+                    if (index > 0) {
+                        previous.put(line.substring(index + SEPARATOR.length()), line.substring(0, index));
+                    }
+                }
+            } catch (final IOException exception) {
+                previous.clear();
+            }
+        }
+        return new ChecksumManifest(file, root.toAbsolutePath(), algorithm, previous);
+    }
+
+    /**
+     * Returns the digest algorithm
+     *
+     * @return digest algorithm
+     * @since 0.0.1
+     */
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Records the digest of a target which has been written
+     *
+     * @param target target file below the root
+     * @param digest digest of its content
+     * @since 0.0.1
+     */
+    public void record(final Path target, final byte[] digest) {
+        requireNonNull(target, "target");
+        requireNonNull(digest, "digest");
+        current.put(relativize(target), Digests.toHex(digest));
+    }
+
+    /**
+     * Records a target which has not been written because it is up to date, keeping the digest of the previous run
+     *
+     * @param target target file below the root
+     * @param source source file whose digest is computed if the previous run did not record the target
+     * @throws IOException if the source cannot be read
+     * @since 0.0.1
+     */
+    public void retain(final Path target, final Path source) throws IOException {
+        requireNonNull(target, "target");
+        requireNonNull(source, "source");
+        final var relativePath = relativize(target);
+        final var digest = previous.get(relativePath);
+        current.put(relativePath, digest == null ? Digests.toHex(Digests.digest(source, algorithm)) : digest);
+    }
+
+    /**
+     * Writes the recorded digests sorted by path atomically to the manifest file
+     *
+     * @throws IOException if the manifest cannot be written
+     * @since 0.0.1
+     */
+    public void save() throws IOException {
+        final var parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final var lines = new StringBuilder();
+        new TreeMap<>(current).forEach((path, digest) -> lines.append(digest).append(SEPARATOR).append(path)
+                .append('\n'));
+        final var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(temp, lines, StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("root", root).add("algorithm", algorithm)
+                .add("previous", previous.size()).add("current", current.size()).toString();
+    }
+
+    private String relativize(final Path target) {
+        return root.relativize(target.toAbsolutePath()).toString().replace(target.getFileSystem().getSeparator(), "/");
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed store of copied files which may be shared by several workspaces, e.g. on a volume mounted by all
+ * agents of a build farm
+ *
+ * <p>
+ * Entries are keyed by the SHA-256 digest of their content and are read-only. A copied file is stored as a hard link
+ * or, where hard links are not supported, as a {@link TransferMode#REFLINK reflink} clone, so storing does not write
+ * the content again; the entry is verified against its key once before it is published with an atomic rename, so
+ * concurrent builds never see partial or corrupt entries, and trusted from then on. A hit is materialized the same way,
+ * so a target either shares the read-only inode of the entry and has to be replaced, not modified in place, or is an
+ * independent clone. Neither works across file stores, so the cache is bypassed for targets on another file store
+ * than the cache.
+ * </p>
+ *
+ * <p>
+ * Every hit updates the last access time of the entry; {@link #evict()} deletes the least recently used entries until
+ * the cache fits into its maximum size again. Walking a large cache is expensive, so it is only walked if no build has
+ * evicted for {@value #EVICTION_INTERVAL_MILLIS} milliseconds or if this instance has stored more than a tenth of the
+ * maximum size since.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class ContentCache {
+    /**
+     * Default maximum size of the cache in bytes
+     *
+     * @since 0.0.1
+     */
+    public static final long DEFAULT_MAX_SIZE = 10L * 1024L * 1024L * 1024L;
+
+    /**
+     * Number of milliseconds after which the cache is walked for eviction regardless of the stored bytes
+     *
+     * @since 0.0.1
+     */
+    public static final long EVICTION_INTERVAL_MILLIS = 60L * 60L * 1000L;
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final String TEMP_PREFIX = ".tmp-";
+    private static final int FAN_OUT_LENGTH = 2;
+    private static final String EVICTED_MARKER = ".evicted";
+    private static final int EVICTION_SIZE_DIVISOR = 10;
+
+    private final Path dir;
+    private final long maxSize;
+    private final AtomicLong storedBytes = new AtomicLong();
+    private final ConcurrentMap<Path, Boolean> linkableDirs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor
+     *
+     * @param dir cache directory which is created if it does not exist
+     * @param maxSize maximum size of the cache in bytes
+     * @throws IllegalArgumentException if the maximum size is not positive
+     * @since 0.0.1
+     */
+    public ContentCache(final Path dir, final long maxSize) {
+        requireNonNull(dir, "dir");
+        Preconditions.checkArgument(maxSize > 0L, "maxSize > 0 expected but actual %s", maxSize);
+        this.dir = dir.toAbsolutePath().resolve(ALGORITHM.toLowerCase(Locale.ROOT));
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Computes the key of the content of the file
+     *
+     * @param file file
+     * @return key
+     * @throws IOException if the file cannot be read
+     * @since 0.0.1
+     */
+    public String key(final Path file) throws IOException {
+        requireNonNull(file, "file");
+        return Digests.toHex(Digests.digest(file, ALGORITHM));
+    }
+
+    /**
+     * Returns whether contents can be materialized at and stored from the target, which requires the target to be on
+     * the file store of the cache; the result is remembered per directory
+     *
+     * @param target target file
+     * @return true if the cache can be used for the target
+     * @throws IOException if the file stores cannot be determined
+     * @since 0.0.1
+     */
+    public boolean isLinkable(final Path target) throws IOException {
+        requireNonNull(target, "target");
+        final var parent = target.toAbsolutePath().getParent();
+        final var known = linkableDirs.get(parent);
+        if (known != null) {
+            return known;
+        }
+        Files.createDirectories(dir);
+        final var linkable = Files.getFileStore(dir).equals(Files.getFileStore(parent));
+        linkableDirs.put(parent, linkable);
+        return linkable;
+    }
+
+    /**
+     * Materializes the cached content at the target, which is replaced if it exists, as a read-only hard link to the
+     * entry or a reflink clone of it; the entry is trusted since it has been verified when it was stored
+     *
+     * @param key key of the content
+     * @param size size of the content
+     * @param target target file
+     * @return true if the content has been materialized, false if it is not cached or can neither be linked nor cloned
+     * @throws IOException if the target cannot be written
+     * @since 0.0.1
+     */
+    public boolean materialize(final String key, final long size, final Path target) throws IOException {
+        requireNonNull(key, "key");
+        requireNonNull(target, "target");
+        final var entry = entryOf(key);
+        final var temp = entry.resolveSibling(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            if (Files.size(entry) != size || !link(entry, temp)) {
+                return false;
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            Files.getFileAttributeView(entry, BasicFileAttributeView.class).setTimes(null,
+                    FileTime.from(Instant.now()), null);
+            return true;
+        } catch (final NoSuchFileException exception) {
+            return false;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Adds the file under the key unless it is cached already; the file becomes a read-only hard link to the entry,
+     * or the entry a reflink clone of the file, and the entry is published only if its content matches the key
+     *
+     * @param key key of the content
+     * @param file file with the content
+     * @return true if the content is cached now, false if it could not be added
+     * @since 0.0.1
+     */
+    public boolean store(final String key, final Path file) {
+        requireNonNull(key, "key");
+        requireNonNull(file, "file");
+        final var entry = entryOf(key);
+        if (Files.exists(entry)) {
+            return true;
+        }
+        final var temp = entry.resolveSibling(TEMP_PREFIX + UUID.randomUUID());
+        try {
+            Files.createDirectories(entry.getParent());
+            if (!link(file, temp) || !key.equals(key(temp))) {
+                delete(temp);
+                return false;
+            }
+            if (!temp.toFile().setReadOnly()) {
+                throw new IOException("Entry " + temp + " cannot be made read-only");
+            }
+            Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+            storedBytes.addAndGet(Files.size(entry));
+            return true;
+        } catch (final IOException exception) {
+            try {
+                delete(temp);
+            } catch (final IOException suppressed) {
+                exception.addSuppressed(suppressed);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Deletes the least recently used entries until the cache fits into its maximum size; the cache is only walked if
+     * no build has evicted for {@value #EVICTION_INTERVAL_MILLIS} milliseconds or if this instance has stored more
+     * than a tenth of the maximum size since
+     *
+     * @return number of deleted entries
+     * @throws IOException if the cache cannot be walked
+     * @since 0.0.1
+     */
+    public int evict() throws IOException {
+        if (!Files.isDirectory(dir) || !isEvictionDue()) {
+            return 0;
+        }
+        markEvicted();
+        final List<Entry> entries = new ArrayList<>();
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && file.getFileName().toString().charAt(0) != '.') {
+                    entries.add(new Entry(file, attrs.size(), attrs.lastAccessTime()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+                if (exc instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+                throw exc;
+            }
+        });
+        var size = entries.stream().mapToLong(entry -> entry.size).sum();
+        if (size <= maxSize) {
+            return 0;
+        }
+        entries.sort(Comparator.comparing(entry -> entry.lastAccessTime));
+        var deleted = 0;
+        for (final var entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            if (delete(entry.file)) {
+                deleted++;
+            }
+            size -= entry.size;
+        }
+        return deleted;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("dir", dir).add("maxSize", maxSize).toString();
+    }
+
+    private void markEvicted() throws IOException {
+        Files.write(dir.resolve(EVICTED_MARKER), new byte[0]);
+        storedBytes.set(0L);
+    }
+
+    private boolean isEvictionDue() throws IOException {
+        if (storedBytes.get() > maxSize / EVICTION_SIZE_DIVISOR) {
+            return true;
+        }
+        try {
+            return Files.getLastModifiedTime(dir.resolve(EVICTED_MARKER)).toMillis() + EVICTION_INTERVAL_MILLIS
+                    <= System.currentTimeMillis();
+        } catch (final NoSuchFileException exception) {
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the read-only file, which needs to be writable first on some platforms
+     */
+    private static boolean delete(final Path file) throws IOException {
+        if (!Files.exists(file)) {
+            return false;
+        }
+        file.toFile().setWritable(true, true);
+        return Files.deleteIfExists(file);
+    }
+
+    /**
+     * Creates the link as a hard link to the file or, if hard links are not supported, as a writable reflink clone of
+     * it
+     *
+     * @return true if the link has been created, false if neither is possible
+     */
+    private static boolean link(final Path file, final Path link) throws IOException {
+        try {
+            Files.createLink(link, file);
+            return true;
+        } catch (final UnsupportedOperationException | IOException exception) {
+            return TransferMode.cloneWithReflink(file, link) && link.toFile().setWritable(true, true);
+        }
+    }
+
+    private Path entryOf(final String key) {
+        return dir.resolve(key.substring(0, Math.min(FAN_OUT_LENGTH, key.length()))).resolve(key);
+    }
+
+    /**
+     * Cached file with the attributes deciding about its eviction
+     */
+    private static final class Entry {
+        private final Path file;
+        private final long size;
+        private final FileTime lastAccessTime;
+
+        private Entry(final Path file, final long size, final FileTime lastAccessTime) {
+            this.file = file;
+            this.size = size;
+            this.lastAccessTime = lastAccessTime;
+        }
+    }
+}
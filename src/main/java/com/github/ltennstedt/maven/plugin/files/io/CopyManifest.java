@@ -0,0 +1,205 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persistent index of the files copied by the last successful run
+ *
+ * <p>
+ * The manifest records relative path, size, last modified time and optionally the content digest of every source
+ * file. A later run only needs the attributes of the source file to decide whether its target is up to date; the
+ * target itself is not examined. Entries which are not recorded again before {@link #save()} are dropped, so files
+ * which disappeared from the source do not linger in the manifest.
+ * </p>
+ *
+ * <p>
+ * The manifest is only valid for the pair of source and target it was written for and assumes that the targets are
+ * not modified by anyone else.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class CopyManifest {
+    private static final int MAGIC = 0x46494458;
+    private static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path file;
+    private final Path source;
+    private final Path target;
+    private final String digestAlgorithm;
+    private final Map<String, Entry> previous;
+    private final Map<String, Entry> current = new ConcurrentHashMap<>();
+
+    private CopyManifest(final Path file, final Path source, final Path target, final String digestAlgorithm,
+            final Map<String, Entry> previous) {
+        this.file = file;
+        this.source = source;
+        this.target = target;
+        this.digestAlgorithm = digestAlgorithm;
+        this.previous = previous;
+    }
+
+    /**
+     * Loads the manifest; a missing, unreadable or foreign manifest results in an empty one
+     *
+     * @param file manifest file
+     * @param source source root
+     * @param target target root
+     * @param digestAlgorithm digest algorithm or null to record sizes and last modified times only
+     * @return manifest
+     * @since 0.0.1
+     */
+    public static CopyManifest load(final Path file, final Path source, final Path target,
+            final String digestAlgorithm) {
+        requireNonNull(file, "file");
+        requireNonNull(source, "source");
+        requireNonNull(target, "target");
+        final Map<String, Entry> previous = new ConcurrentHashMap<>();
+        if (Files.isDirectory(target)) {
+            try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+                if (in.readInt() == MAGIC && in.readInt() == VERSION && in.readUTF().equals(source.toString())
+                        && in.readUTF().equals(target.toString())
+                        && in.readUTF().equals(digestAlgorithm == null ? "" : digestAlgorithm)) {
+                    for (var count = in.readInt(); count > 0; count--) {
+                        final var path = in.readUTF();
+                        final var size = in.readLong();
+                        final var lastModified = in.readLong();
+                        previous.put(path, new Entry(size, lastModified, in.readUTF()));
+                    }
+                }
+            } catch (final IOException exception) {
+                previous.clear();
+            }
+        }
+        return new CopyManifest(file, source, target, digestAlgorithm, previous);
+    }
+
+    /**
+     * Returns true if the source file is unchanged since it was recorded and records it again
+     *
+     * @param relativePath path relative to the source root
+     * @param attributes attributes of the source file
+     * @return true if the target is up to date
+     * @throws IOException if the digest of the source cannot be computed
+     * @since 0.0.1
+     */
+    public boolean isUpToDate(final String relativePath, final BasicFileAttributes attributes) throws IOException {
+        requireNonNull(relativePath, "relativePath");
+        requireNonNull(attributes, "attributes");
+        final var entry = previous.get(relativePath);
+        if (entry == null || entry.size != attributes.size()) {
+            return false;
+        }
+        final var lastModified = attributes.lastModifiedTime().toMillis();
+        if (entry.lastModified != lastModified && (entry.digest.isEmpty() || !entry.digest
+                .equals(Digests.toHex(Digests.digest(source.resolve(relativePath), digestAlgorithm))))) {
+            return false;
+        }
+        current.put(relativePath, new Entry(entry.size, lastModified, entry.digest));
+        return true;
+    }
+
+    /**
+     * Records a file which has been copied
+     *
+     * @param relativePath path relative to the source root
+     * @param attributes attributes of the source file
+     * @throws IOException if the digest of the source cannot be computed
+     * @since 0.0.1
+     */
+    public void record(final String relativePath, final BasicFileAttributes attributes) throws IOException {
+        requireNonNull(relativePath, "relativePath");
+        requireNonNull(attributes, "attributes");
+        final var digest = digestAlgorithm == null ? ""
+                : Digests.toHex(Digests.digest(source.resolve(relativePath), digestAlgorithm));
+        current.put(relativePath, new Entry(attributes.size(), attributes.lastModifiedTime().toMillis(), digest));
+    }
+
+    /**
+     * Writes the recorded files atomically to the manifest file
+     *
+     * @throws IOException if the manifest cannot be written
+     * @since 0.0.1
+     */
+    public void save() throws IOException {
+        final var parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        final var temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+        try {
+            try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeUTF(source.toString());
+                out.writeUTF(target.toString());
+                out.writeUTF(digestAlgorithm == null ? "" : digestAlgorithm);
+                out.writeInt(current.size());
+                for (final var entry : current.entrySet()) {
+                    out.writeUTF(entry.getKey());
+                    out.writeLong(entry.getValue().size);
+                    out.writeLong(entry.getValue().lastModified);
+                    out.writeUTF(entry.getValue().digest);
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("source", source).add("target", target)
+                .add("digestAlgorithm", digestAlgorithm).add("previous", previous.size())
+                .add("current", current.size()).toString();
+    }
+
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String digest;
+
+        private Entry(final long size, final long lastModified, final String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.io.BaseEncoding;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.CRC32C;
+import java.util.zip.Checksum;
+
+/**
+ * Utility methods for content digests of files
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class Digests {
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final String CRC32C_ALGORITHM = "CRC32C";
+
+    private Digests() {
+    }
+
+    /**
+     * Returns a new {@link MessageDigest} for the algorithm; besides the algorithms of the security providers CRC32C
+     * is supported, which is much faster than a cryptographic hash but detects accidental corruption only
+     *
+     * @param algorithm algorithm, e.g. SHA-256 or CRC32C
+     * @return message digest
+     * @throws IllegalArgumentException if the algorithm is not supported
+     * @since 0.0.1
+     */
+    public static MessageDigest newDigest(final String algorithm) {
+        requireNonNull(algorithm, "algorithm");
+        if (CRC32C_ALGORITHM.equalsIgnoreCase(algorithm)) {
+            return new ChecksumDigest(CRC32C_ALGORITHM, new CRC32C());
+        }
+        try {
+            return MessageDigest.getInstance(algorithm);
+        } catch (final NoSuchAlgorithmException exception) {
+            throw new IllegalArgumentException("Unsupported digest algorithm " + algorithm, exception);
+        }
+    }
+
+    /**
+     * Computes the digest of the content of the file
+     *
+     * @param file file
+     * @param algorithm algorithm, e.g. SHA-256
+     * @return digest
+     * @throws IOException if the file cannot be read
+     * @since 0.0.1
+     */
+    public static byte[] digest(final Path file, final String algorithm) throws IOException {
+        requireNonNull(file, "file");
+        final var digest = newDigest(algorithm);
+        final var buffer = new byte[BUFFER_SIZE];
+        try (var in = Files.newInputStream(file)) {
+            for (var read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Copies the source to the target, which is replaced if it exists, and computes the digest of the bytes while
+     * they stream through, so the content does not need to be read a second time; the content is written to a
+     * temporary sibling which is renamed over the target, so a target which is a hard link is not written in place
+     *
+     * @param source source file
+     * @param target target file
+     * @param algorithm algorithm, e.g. SHA-256
+     * @return digest of the copied content
+     * @throws IOException if the file cannot be copied
+     * @since 0.0.1
+     */
+    public static byte[] copy(final Path source, final Path target, final String algorithm) throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(target, "target");
+        final var digest = newDigest(algorithm);
+        return TargetFiles.replace(target, temp -> {
+            final var buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (var in = FileChannel.open(source, StandardOpenOption.READ);
+                    var out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE_NEW)) {
+                while (in.read(buffer) != -1) {
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, buffer.limit());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+            return digest.digest();
+        });
+    }
+
+    /**
+     * Returns the lower case hexadecimal representation of the digest
+     *
+     * @param digest digest
+     * @return hexadecimal representation
+     * @since 0.0.1
+     */
+    public static String toHex(final byte[] digest) {
+        requireNonNull(digest, "digest");
+        return BaseEncoding.base16().lowerCase().encode(digest);
+    }
+
+    /**
+     * {@link MessageDigest} computing a {@link Checksum} whose value is encoded big-endian in four bytes
+     */
+    private static final class ChecksumDigest extends MessageDigest {
+        private static final int LENGTH = 4;
+
+        private final Checksum checksum;
+
+        private ChecksumDigest(final String algorithm, final Checksum checksum) {
+            super(algorithm);
+            this.checksum = checksum;
+        }
+
+        @Override
+        protected int engineGetDigestLength() {
+            return LENGTH;
+        }
+
+        @Override
+        protected void engineUpdate(final byte input) {
+            checksum.update(input);
+        }
+
+        @Override
+        protected void engineUpdate(final byte[] input, final int offset, final int len) {
+            checksum.update(input, offset, len);
+        }
+
+        @Override
+        protected byte[] engineDigest() {
+            final var value = checksum.getValue();
+            checksum.reset();
+            return ByteBuffer.allocate(LENGTH).putInt((int) value).array();
+        }
+
+        @Override
+        protected void engineReset() {
+            checksum.reset();
+        }
+    }
+}
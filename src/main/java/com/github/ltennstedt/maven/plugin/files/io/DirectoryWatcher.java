@@ -0,0 +1,194 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches a tree for changes and reports them in debounced batches
+ *
+ * <p>
+ * Every directory of the tree which is not pruned by the {@link PathFilter} is registered with a {@link WatchService};
+ * directories created later are registered as they are reported. {@link #take(long)} waits for the first event and
+ * then collects further events until none has arrived for the debounce interval, so a burst of events, e.g. from a
+ * compiler, results in a single batch with every changed path once. A path created and then modified within a batch
+ * is reported as created, otherwise the latest kind of event wins.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class DirectoryWatcher implements Closeable {
+    private final Path root;
+    private final PathFilter pathFilter;
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> directories = new HashMap<>();
+
+    /**
+     * Constructor which registers the tree
+     *
+     * @param root root directory
+     * @param pathFilter filter for the entries below the root
+     * @throws IOException if the tree cannot be registered
+     * @since 0.0.1
+     */
+    public DirectoryWatcher(final Path root, final PathFilter pathFilter) throws IOException {
+        this.root = requireNonNull(root, "root").toAbsolutePath();
+        this.pathFilter = requireNonNull(pathFilter, "pathFilter");
+        watchService = this.root.getFileSystem().newWatchService();
+        try {
+            register(this.root);
+        } catch (final IOException exception) {
+            watchService.close();
+            throw exception;
+        }
+    }
+
+    /**
+     * Waits for changes and returns the paths relative to the root of the entries which have been created, modified or
+     * deleted with the kind of their change; after events have been lost the result contains the empty path, which
+     * stands for the whole tree, with {@link StandardWatchEventKinds#OVERFLOW}
+     *
+     * @param debounceMillis interval without events after which a batch is complete
+     * @return kinds of changes by relative paths of the changed entries, sorted so that a directory precedes its
+     *     entries
+     * @throws IOException if a new directory cannot be registered
+     * @throws InterruptedIOException if the calling thread was interrupted while waiting
+     * @since 0.0.1
+     */
+    public SortedMap<Path, WatchEvent.Kind<?>> take(final long debounceMillis) throws IOException {
+        final SortedMap<Path, WatchEvent.Kind<?>> changes = new TreeMap<>();
+        try {
+            var key = watchService.take();
+            while (key != null) {
+                collect(key, changes);
+                key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS);
+            }
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Watching " + root + " was interrupted");
+            interrupted.initCause(exception);
+            throw interrupted;
+        }
+        return changes;
+    }
+
+    /**
+     * Stops watching
+     *
+     * @throws IOException if the watch service cannot be closed
+     * @since 0.0.1
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("root", root).add("pathFilter", pathFilter)
+                .add("directories", directories.size()).toString();
+    }
+
+    private void collect(final WatchKey key, final Map<Path, WatchEvent.Kind<?>> changes) throws IOException {
+        final var dir = directories.get(key);
+        for (final var event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                changes.put(Path.of(""), StandardWatchEventKinds.OVERFLOW);
+                continue;
+            }
+            final var entry = dir.resolve((Path) event.context());
+            final var relativePath = root.relativize(entry);
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(entry)) {
+                if (pathFilter.isPruned(relativePath)) {
+                    continue;
+                }
+                register(entry);
+            }
+            changes.merge(relativePath, event.kind(), DirectoryWatcher::merge);
+        }
+        if (!key.reset()) {
+            directories.remove(key);
+        }
+    }
+
+    /**
+     * Keeps a creation which has been followed by a modification, otherwise the later kind
+     */
+    private static WatchEvent.Kind<?> merge(final WatchEvent.Kind<?> earlier, final WatchEvent.Kind<?> later) {
+        if (earlier == StandardWatchEventKinds.ENTRY_CREATE && later == StandardWatchEventKinds.ENTRY_MODIFY) {
+            return earlier;
+        }
+        return later;
+    }
+
+    /**
+     * Registers the directory and every directory below it which is not pruned
+     */
+    private void register(final Path start) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                    throws IOException {
+                if (!dir.equals(root) && pathFilter.isPruned(root.relativize(dir))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                directories.put(dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY), dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            /**
+             * Ignores entries which have been deleted again before they could be registered
+             */
+            @Override
+            public FileVisitResult visitFileFailed(final Path file, final IOException exc) throws IOException {
+                if (exc instanceof NoSuchFileException) {
+                    return FileVisitResult.CONTINUE;
+                }
+                throw exc;
+            }
+        });
+    }
+}
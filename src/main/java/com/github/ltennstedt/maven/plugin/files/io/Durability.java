@@ -0,0 +1,66 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import java.util.Locale;
+
+/**
+ * Guarantees about written files having reached the disk when an operation reports success
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public enum Durability {
+    /**
+     * No syncs; the operating system writes the files back whenever it decides to
+     *
+     * @since 0.0.1
+     */
+    NONE,
+
+    /**
+     * All written files and then their directories are synced concurrently once at the end of the operation
+     *
+     * @since 0.0.1
+     */
+    BATCH,
+
+    /**
+     * Every file and its directory are synced as soon as the file has been written, which makes an
+     * {@link OperationJournal} safe against a crash of the machine but costs two syncs per file
+     *
+     * @since 0.0.1
+     */
+    PER_FILE;
+
+    /**
+     * Returns the durability for a configuration value like {@code per-file}
+     *
+     * @param value configuration value
+     * @return durability
+     * @throws IllegalArgumentException if there is no such durability
+     * @since 0.0.1
+     */
+    public static Durability of(final String value) {
+        requireNonNull(value, "value");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Callbacks of a {@link TreeWalker}
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+@FunctionalInterface
+public interface EntryVisitor {
+    /**
+     * Called on the walking thread before the entries of the directory are visited
+     *
+     * @param dir directory
+     * @param relativePath path of the directory relative to the root
+     * @throws IOException if the walk has to be aborted
+     * @since 0.0.1
+     */
+    default void enterDirectory(final Path dir, final Path relativePath) throws IOException {
+        // nothing to do by default
+    }
+
+    /**
+     * Called on a worker thread for every selected file
+     *
+     * @param file file
+     * @param attributes attributes of the file
+     * @param relativePath path of the file relative to the root
+     * @throws IOException if the file cannot be processed
+     * @since 0.0.1
+     */
+    void visitFile(Path file, BasicFileAttributes attributes, Path relativePath) throws IOException;
+
+    /**
+     * Called once all entries of the directory, including its subdirectories, have been processed
+     *
+     * @param dir directory
+     * @param relativePath path of the directory relative to the root
+     * @throws IOException if the directory cannot be processed
+     * @since 0.0.1
+     */
+    default void leaveDirectory(final Path dir, final Path relativePath) throws IOException {
+        // nothing to do by default
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Kinds of threads on which a {@link TaskRunner} processes entries
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public enum ExecutorMode {
+    /**
+     * Fixed pool of platform threads
+     *
+     * @since 0.0.1
+     */
+    PLATFORM,
+
+    /**
+     * A virtual thread per entry on Java 21 or later, which suits blocking file system calls with a high latency,
+     * e.g. on network file systems; falls back to {@link #PLATFORM} on older Java versions
+     *
+     * @since 0.0.1
+     */
+    VIRTUAL;
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findNewVirtualThreadPerTaskExecutor();
+
+    /**
+     * Returns true if the running Java version supports virtual threads
+     *
+     * @return true if virtual threads are supported
+     * @since 0.0.1
+     */
+    public static boolean isVirtualThreadsSupported() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Returns the mode for a configuration value like {@code virtual}
+     *
+     * @param value configuration value
+     * @return executor mode
+     * @throws IllegalArgumentException if there is no such mode
+     * @since 0.0.1
+     */
+    public static ExecutorMode of(final String value) {
+        requireNonNull(value, "value");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Returns true if tasks run on virtual threads, i.e. if a thread is started per task
+     */
+    boolean isVirtual() {
+        return this == VIRTUAL && isVirtualThreadsSupported();
+    }
+
+    /**
+     * Returns a new executor; the number of threads limits the pool of platform threads only
+     */
+    ExecutorService newExecutor(final int threads) {
+        if (isVirtual()) {
+            try {
+                return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+            } catch (final IllegalAccessException | InvocationTargetException exception) {
+                throw new IllegalStateException("Virtual threads cannot be created", exception);
+            }
+        }
+        return Executors.newFixedThreadPool(threads,
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("files-maven-plugin-%d").build());
+    }
+
+    private static Method findNewVirtualThreadPerTaskExecutor() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (final NoSuchMethodException exception) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.ImmutableMap;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Thrown when one or more entries of a tree could not be processed
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class FailedEntriesException extends IOException {
+    private static final long serialVersionUID = 1L;
+
+    private final transient Map<Path, IOException> failures;
+
+    /**
+     * Constructor
+     *
+     * @param failures failed entries mapped to their causes
+     * @since 0.0.1
+     */
+    public FailedEntriesException(final Map<Path, IOException> failures) {
+        super(message(requireNonNull(failures, "failures")), failures.values().stream().findFirst().orElse(null));
+        this.failures = ImmutableMap.copyOf(failures);
+    }
+
+    /**
+     * Returns the failed entries mapped to their causes
+     *
+     * @return failures
+     * @since 0.0.1
+     */
+    public Map<Path, IOException> getFailures() {
+        return failures;
+    }
+
+    private static String message(final Map<Path, IOException> failures) {
+        return "Failed entries: " + failures.keySet().stream().map(Path::toString).collect(Collectors.joining(", "));
+    }
+}
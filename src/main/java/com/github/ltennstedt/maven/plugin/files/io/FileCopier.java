@@ -0,0 +1,298 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Copies single files to their targets
+ *
+ * <p>
+ * The copier is configured with its setters before the first file is copied and may then be used by several threads.
+ * </p>
+ *
+ * <p>
+ * With deduplication the copier keeps an index of the contents it has copied in this run, keyed by size and digest.
+ * Every file is copied through a user space buffer which computes its digest, so the source is read once; a copy
+ * whose content is already in the index is then replaced with a hard link to the first copy, and kept if the link
+ * cannot be created.
+ * </p>
+ *
+ * <p>
+ * With a {@link ChecksumManifest} the content is copied through a user space buffer regardless of the
+ * {@link TransferMode}, so its digest is computed while the bytes stream through and recorded for the target; for a
+ * link the digest of the source is recorded.
+ * </p>
+ *
+ * <p>
+ * With a {@link ContentCache} a file whose content is cached is materialized from the cache instead of being copied,
+ * and every copied content is added to the cache; targets on another file store than the cache bypass it.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class FileCopier {
+    private LinkMode linkMode = LinkMode.COPY;
+    private TransferMode transferMode = TransferMode.FILES;
+    private long chunkSize = TransferMode.DEFAULT_CHUNK_SIZE;
+    private boolean preserveLastModified;
+    private String dedupAlgorithm;
+    private ChecksumManifest checksums;
+    private ContentCache cache;
+    private final ConcurrentMap<String, Path> firstCopies = new ConcurrentHashMap<>();
+
+    /**
+     * Copies the source file to the target which is replaced if it exists
+     *
+     * @param source source file
+     * @param attributes attributes of the source file
+     * @param target target file
+     * @return number of transferred bytes; 0 if the target is a link
+     * @throws IOException if the file cannot be copied
+     * @since 0.0.1
+     */
+    public long copy(final Path source, final BasicFileAttributes attributes, final Path target) throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(attributes, "attributes");
+        requireNonNull(target, "target");
+        if (link(source, target)) {
+            recordChecksum(source, target);
+            return 0L;
+        }
+        if (cache != null) {
+            return copyThroughCache(source, attributes, target);
+        }
+        if (dedupAlgorithm != null) {
+            return copyOrLinkDuplicate(source, attributes, target);
+        }
+        return transfer(source, attributes, target);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("linkMode", linkMode).add("transferMode", transferMode)
+                .add("chunkSize", chunkSize).add("preserveLastModified", preserveLastModified)
+                .add("dedupAlgorithm", dedupAlgorithm).add("checksums", checksums).add("cache", cache).toString();
+    }
+
+    /**
+     * Sets the {@link LinkMode}; default is {@link LinkMode#COPY}
+     *
+     * @param linkMode link mode
+     * @since 0.0.1
+     */
+    public void setLinkMode(final LinkMode linkMode) {
+        this.linkMode = requireNonNull(linkMode, "linkMode");
+    }
+
+    /**
+     * Sets the {@link TransferMode}; default is {@link TransferMode#FILES}
+     *
+     * @param transferMode transfer mode
+     * @since 0.0.1
+     */
+    public void setTransferMode(final TransferMode transferMode) {
+        this.transferMode = requireNonNull(transferMode, "transferMode");
+    }
+
+    /**
+     * Sets the maximum number of bytes transferred at once
+     *
+     * @param chunkSize chunk size
+     * @throws IllegalArgumentException if the chunk size is not positive
+     * @since 0.0.1
+     */
+    public void setChunkSize(final long chunkSize) {
+        Preconditions.checkArgument(chunkSize > 0L, "chunkSize > 0 expected but actual %s", chunkSize);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets whether the last modified time of the source is applied to the target
+     *
+     * @param preserveLastModified true if the last modified time is preserved
+     * @since 0.0.1
+     */
+    public void setPreserveLastModified(final boolean preserveLastModified) {
+        this.preserveLastModified = preserveLastModified;
+    }
+
+    /**
+     * Sets the digest algorithm, e.g. SHA-256, with which duplicate contents are detected; null disables
+     * deduplication which is the default
+     *
+     * @param dedupAlgorithm digest algorithm or null
+     * @throws IllegalArgumentException if the algorithm is not supported
+     * @since 0.0.1
+     */
+    public void setDedupAlgorithm(final String dedupAlgorithm) {
+        if (dedupAlgorithm != null) {
+            Digests.newDigest(dedupAlgorithm);
+        }
+        this.dedupAlgorithm = dedupAlgorithm;
+    }
+
+    /**
+     * Sets the manifest to which the digests of the copied files are recorded; null disables checksums which is the
+     * default
+     *
+     * @param checksums checksum manifest or null
+     * @since 0.0.1
+     */
+    public void setChecksums(final ChecksumManifest checksums) {
+        this.checksums = checksums;
+    }
+
+    /**
+     * Sets the {@link ContentCache} from which contents are materialized and to which copied contents are added; null
+     * disables the cache which is the default; with a cache, deduplication is not applied
+     *
+     * @param cache content cache or null
+     * @since 0.0.1
+     */
+    public void setCache(final ContentCache cache) {
+        this.cache = cache;
+    }
+
+    private long transfer(final Path source, final BasicFileAttributes attributes, final Path target)
+            throws IOException {
+        if (checksums == null) {
+            transferMode.transfer(source, target, chunkSize);
+        } else {
+            checksums.record(target, Digests.copy(source, target, checksums.getAlgorithm()));
+        }
+        if (preserveLastModified) {
+            Files.setLastModifiedTime(target, attributes.lastModifiedTime());
+        }
+        return attributes.size();
+    }
+
+    /**
+     * Copies the file while computing the digest of its content and replaces the copy with a link to an earlier copy
+     * of the same content
+     */
+    private long copyOrLinkDuplicate(final Path source, final BasicFileAttributes attributes, final Path target)
+            throws IOException {
+        final var digest = Digests.copy(source, target, dedupAlgorithm);
+        if (checksums != null) {
+            checksums.record(target, checksums.getAlgorithm().equalsIgnoreCase(dedupAlgorithm) ? digest
+                    : Digests.digest(target, checksums.getAlgorithm()));
+        }
+        final var key = attributes.size() + ":" + Digests.toHex(digest);
+        final var original = firstCopies.putIfAbsent(key, target);
+        if (original != null && !original.equals(target)) {
+            try {
+                TargetFiles.replace(target, temp -> Files.createLink(temp, original));
+            } catch (final IOException ignored) {
+                // the copy is kept
+            }
+        }
+        if (preserveLastModified) {
+            Files.setLastModifiedTime(target, attributes.lastModifiedTime());
+        }
+        return attributes.size();
+    }
+
+    /**
+     * Materializes a cached content or copies the file and adds its content to the cache; the file is just copied if
+     * the cache cannot link to the target
+     */
+    private long copyThroughCache(final Path source, final BasicFileAttributes attributes, final Path target)
+            throws IOException {
+        if (!cache.isLinkable(target)) {
+            return transfer(source, attributes, target);
+        }
+        final var key = cache.key(source);
+        if (cache.materialize(key, attributes.size(), target)) {
+            recordChecksum(source, target);
+            if (preserveLastModified) {
+                Files.setLastModifiedTime(target, attributes.lastModifiedTime());
+            }
+            return 0L;
+        }
+        final var size = transfer(source, attributes, target);
+        cache.store(key, target);
+        return size;
+    }
+
+    /**
+     * Replaces the target with a link according to the {@link LinkMode}
+     *
+     * @return true if the target is a link now, false if it has to be copied
+     */
+    private boolean link(final Path source, final Path target) throws IOException {
+        switch (linkMode) {
+            case SYMLINK:
+                Files.deleteIfExists(target);
+                Files.createSymbolicLink(target, source.toAbsolutePath());
+                return true;
+            case HARDLINK:
+                try {
+                    createLink(source, target);
+                    return true;
+                } catch (final IOException exception) {
+                    if (Files.getFileStore(source).equals(Files.getFileStore(target.toAbsolutePath().getParent()))) {
+                        throw exception;
+                    }
+                    return false;
+                }
+            case HARDLINK_OR_COPY:
+                try {
+                    createLink(source, target);
+                    return true;
+                } catch (final IOException exception) {
+                    return false;
+                }
+            default:
+                return false;
+        }
+    }
+
+    private void recordChecksum(final Path source, final Path target) throws IOException {
+        if (checksums != null) {
+            checksums.record(target, Digests.digest(source, checksums.getAlgorithm()));
+        }
+    }
+
+    private static void createLink(final Path source, final Path target) throws IOException {
+        if (Files.exists(target, LinkOption.NOFOLLOW_LINKS)) {
+            if (Files.isSameFile(source, target)) {
+                return;
+            }
+            Files.delete(target);
+        }
+        Files.createLink(target, source);
+    }
+}
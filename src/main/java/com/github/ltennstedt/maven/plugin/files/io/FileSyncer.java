@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Syncs the files written by an operation and the directories containing them according to a {@link Durability}
+ *
+ * <p>
+ * Writers report every written file with {@link #written(Path)}, possibly from several threads. With
+ * {@link Durability#BATCH} the files are collected and synced by {@link #finish()} on the threads of a
+ * {@link TaskRunner}, followed by the directories from the files up to the parent of the root, so new directory
+ * entries are durable as well. With {@link Durability#PER_FILE} a file and its directory are synced right away.
+ * A tree renamed as a whole is reported with {@link #renamed(Path, Path)}; a rename only changes the directories
+ * containing source and target, so only those are synced. A file copied from a source which is deleted next is
+ * reported with {@link #copied(Path)} and synced right away with either durability, so it is durable before the
+ * source is gone. Symbolic links are not synced themselves, only their
+ * directories. Directories which cannot be opened for syncing, e.g. on Windows, are skipped, while a failing sync of
+ * an opened directory fails like a failing sync of a file.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class FileSyncer {
+    private final Durability durability;
+    private final Path boundary;
+    private final int threads;
+    private final ExecutorMode executorMode;
+    private final Queue<Path> files = new ConcurrentLinkedQueue<>();
+    private final Set<Path> directories = ConcurrentHashMap.newKeySet();
+    private Consumer<Path> listener = path -> {
+    };
+
+    /**
+     * Constructor
+     *
+     * @param durability durability
+     * @param root root of the written tree; directories above its parent are not synced
+     * @param threads number of threads syncing concurrently
+     * @param executorMode kind of threads
+     * @since 0.0.1
+     */
+    public FileSyncer(final Durability durability, final Path root, final int threads,
+            final ExecutorMode executorMode) {
+        this.durability = requireNonNull(durability, "durability");
+        final var absoluteRoot = requireNonNull(root, "root").toAbsolutePath();
+        boundary = absoluteRoot.getParent() == null ? absoluteRoot : absoluteRoot.getParent();
+        this.threads = Math.max(1, threads);
+        this.executorMode = requireNonNull(executorMode, "executorMode");
+    }
+
+    /**
+     * Reports a written file
+     *
+     * @param file file
+     * @throws IOException if the file is synced right away and syncing fails
+     * @since 0.0.1
+     */
+    public void written(final Path file) throws IOException {
+        requireNonNull(file, "file");
+        if (durability == Durability.NONE) {
+            return;
+        }
+        final var absoluteFile = file.toAbsolutePath();
+        final var symbolicLink = Files.isSymbolicLink(absoluteFile);
+        if (durability == Durability.PER_FILE) {
+            if (!symbolicLink) {
+                syncFile(absoluteFile);
+            }
+            syncDirectory(absoluteFile.getParent());
+        } else if (!symbolicLink) {
+            files.add(absoluteFile);
+        }
+        addDirectories(absoluteFile.getParent());
+    }
+
+    /**
+     * Reports a file copied from a source which is deleted next; unless the durability is {@link Durability#NONE} the
+     * file and its directory are synced right away, since the source is the only other copy of the content
+     *
+     * @param file file
+     * @throws IOException if syncing fails
+     * @since 0.0.1
+     */
+    public void copied(final Path file) throws IOException {
+        requireNonNull(file, "file");
+        if (durability == Durability.NONE) {
+            return;
+        }
+        final var absoluteFile = file.toAbsolutePath();
+        if (!Files.isSymbolicLink(absoluteFile)) {
+            syncFile(absoluteFile);
+        }
+        syncDirectory(absoluteFile.getParent());
+        addDirectories(absoluteFile.getParent());
+    }
+
+    /**
+     * Reports every file and directory of a tree which has been written as a whole, e.g. renamed into place
+     *
+     * @param root file or directory
+     * @throws IOException if the tree cannot be walked or files are synced right away and syncing fails
+     * @since 0.0.1
+     */
+    public void writtenTree(final Path root) throws IOException {
+        requireNonNull(root, "root");
+        if (durability == Durability.NONE) {
+            return;
+        }
+        Files.walkFileTree(root.toAbsolutePath(), new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs) {
+                addDirectories(dir);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) throws IOException {
+                written(file);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * Reports a file or tree which has been renamed as a whole; only the directories containing source and target are
+     * synced since the content has not been written
+     *
+     * @param source former path
+     * @param target new path
+     * @throws IOException if the directories are synced right away and syncing fails
+     * @since 0.0.1
+     */
+    public void renamed(final Path source, final Path target) throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(target, "target");
+        if (durability == Durability.NONE) {
+            return;
+        }
+        final var sourceParent = source.toAbsolutePath().getParent();
+        final var targetParent = target.toAbsolutePath().getParent();
+        if (durability == Durability.PER_FILE) {
+            syncDirectory(sourceParent);
+            syncDirectory(targetParent);
+        } else {
+            directories.add(sourceParent);
+        }
+        addDirectories(targetParent);
+    }
+
+    /**
+     * Syncs the collected files and then the directories and waits until all of them are durable
+     *
+     * @throws FailedEntriesException if entries could not be synced
+     * @throws IOException if waiting for the syncs fails
+     * @since 0.0.1
+     */
+    public void finish() throws IOException {
+        if (durability == Durability.NONE) {
+            return;
+        }
+        try (var runner = new TaskRunner(threads, executorMode)) {
+            for (var file = files.poll(); file != null; file = files.poll()) {
+                final var entry = file;
+                runner.submit(entry, () -> syncFile(entry));
+            }
+            runner.await();
+        }
+        try (var runner = new TaskRunner(threads, executorMode)) {
+            for (final var dir : directories) {
+                runner.submit(dir, () -> syncDirectory(dir));
+            }
+            runner.await();
+        }
+        directories.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("durability", durability).add("boundary", boundary)
+                .add("threads", threads).toString();
+    }
+
+    /**
+     * Sets the listener which is called with every file and directory once it has been synced
+     *
+     * @param listener listener
+     * @since 0.0.1
+     */
+    @VisibleForTesting
+    public void setListener(final Consumer<Path> listener) {
+        this.listener = requireNonNull(listener, "listener");
+    }
+
+    /**
+     * Adds the directory and its ancestors up to the boundary, stopping at the first one which is known already
+     */
+    private void addDirectories(final Path dir) {
+        for (var current = dir; current != null && current.startsWith(boundary) && directories.add(current);
+                current = current.getParent()) {
+            if (current.equals(boundary)) {
+                break;
+            }
+        }
+    }
+
+    private void syncFile(final Path file) throws IOException {
+        try (var channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.force(true);
+        }
+        listener.accept(file);
+    }
+
+    /**
+     * Syncs the directory where the platform allows opening directories; only a directory which cannot be opened is
+     * skipped
+     */
+    private void syncDirectory(final Path dir) throws IOException {
+        final FileChannel channel;
+        try {
+            channel = FileChannel.open(dir, StandardOpenOption.READ);
+        } catch (final IOException exception) {
+            return;
+        }
+        try (channel) {
+            channel.force(true);
+        }
+        listener.accept(dir);
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.FileStore;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Queue of one module within the budget of concurrent {@link IoTask IoTasks} on one {@link FileStore}, which is shared
+ * by all executions of the plugin in a Maven session, see {@link IoSchedulers}
+ *
+ * <p>
+ * With {@code mvn -T} the executions of all modules get schedulers of the same budget for the same file store and
+ * together run at most as many tasks on it as the budget allows, however many threads each of them has. Every module
+ * has a queue of its own, and a released permit goes to the next module with waiting tasks in turn, so a module with
+ * many threads does not starve the others; within a module waiting tasks are admitted in the order they arrived.
+ * </p>
+ *
+ * <p>
+ * A task which is run by a thread already holding a permit of the same budget, e.g. a task running a nested task
+ * itself, does not take a second permit.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class IoScheduler {
+    private static final ThreadLocal<Budget> HOLDING = new ThreadLocal<>();
+
+    private final Budget budget;
+    private final String queue;
+
+    IoScheduler(final Budget budget, final String queue) {
+        this.budget = budget;
+        this.queue = queue;
+    }
+
+    /**
+     * Runs the task as soon as a permit is available and it is the turn of the queue
+     *
+     * @param task task
+     * @throws IOException if the task fails
+     * @throws InterruptedIOException if the calling thread was interrupted while waiting for a permit
+     * @since 0.0.1
+     */
+    public void run(final IoTask task) throws IOException {
+        requireNonNull(task, "task");
+        if (HOLDING.get() == budget) {
+            task.run();
+            return;
+        }
+        budget.acquire(queue);
+        final var previous = HOLDING.get();
+        HOLDING.set(budget);
+        try {
+            task.run();
+        } finally {
+            if (previous == null) {
+                HOLDING.remove();
+            } else {
+                HOLDING.set(previous);
+            }
+            budget.release();
+        }
+    }
+
+    /**
+     * Returns the maximum number of tasks running concurrently on the file store
+     *
+     * @return budget
+     * @since 0.0.1
+     */
+    public int getPermits() {
+        return budget.permits;
+    }
+
+    /**
+     * Returns the queue of the tasks of this scheduler
+     *
+     * @return queue
+     * @since 0.0.1
+     */
+    public String getQueue() {
+        return queue;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("budget", budget).add("queue", queue).toString();
+    }
+
+    /**
+     * Permits of a file store which are handed to the queues with waiting tasks in turn
+     */
+    static final class Budget {
+        private final FileStore store;
+        private final int permits;
+        private final Object lock = new Object();
+        private final Map<String, Deque<Waiter>> waiting = new HashMap<>();
+        private final Deque<String> turns = new ArrayDeque<>();
+        private int available;
+
+        Budget(final FileStore store, final int permits) {
+            this.store = store;
+            this.permits = permits;
+            available = permits;
+        }
+
+        @Override
+        public String toString() {
+            synchronized (lock) {
+                return MoreObjects.toStringHelper(this).add("store", store).add("permits", permits)
+                        .add("available", available).add("waiting", turns.size()).toString();
+            }
+        }
+
+        private void acquire(final String queue) throws InterruptedIOException {
+            synchronized (lock) {
+                if (available > 0 && turns.isEmpty()) {
+                    available--;
+                    return;
+                }
+                final var waiter = new Waiter();
+                final var waiters = waiting.computeIfAbsent(queue, key -> new ArrayDeque<>());
+                if (waiters.isEmpty()) {
+                    turns.addLast(queue);
+                }
+                waiters.addLast(waiter);
+                while (!waiter.granted) {
+                    try {
+                        lock.wait();
+                    } catch (final InterruptedException exception) {
+                        abandon(queue, waiter);
+                        Thread.currentThread().interrupt();
+                        final var interrupted = new InterruptedIOException("Waiting for " + store + " was interrupted");
+                        interrupted.initCause(exception);
+                        throw interrupted;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Hands the permit to the head of the queue whose turn it is, which then goes to the end of the turns if it
+         * has further waiting tasks
+         */
+        private void release() {
+            synchronized (lock) {
+                final var queue = turns.pollFirst();
+                if (queue == null) {
+                    available++;
+                    return;
+                }
+                final var waiters = waiting.get(queue);
+                waiters.pollFirst().granted = true;
+                if (waiters.isEmpty()) {
+                    waiting.remove(queue);
+                } else {
+                    turns.addLast(queue);
+                }
+                lock.notifyAll();
+            }
+        }
+
+        /**
+         * Withdraws an interrupted waiter, passing the permit on if it has been granted meanwhile
+         */
+        private void abandon(final String queue, final Waiter waiter) {
+            if (waiter.granted) {
+                release();
+                return;
+            }
+            final var waiters = waiting.get(queue);
+            waiters.remove(waiter);
+            if (waiters.isEmpty()) {
+                waiting.remove(queue);
+                turns.remove(queue);
+            }
+        }
+    }
+
+    /**
+     * Task waiting for a permit
+     */
+    private static final class Waiter {
+        private boolean granted;
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Budgets of concurrent {@link IoTask IoTasks} per {@link FileStore} which are shared by the executions of the plugin
+ * in one Maven session
+ *
+ * <p>
+ * The registry of a session is looked up by a key identifying the session, e.g. its execution request, which is
+ * shared by the sessions Maven clones for the modules of a parallel build. The registry is held weakly, so it is
+ * discarded with its session and a later session in the same JVM, e.g. of a Maven daemon, starts with fresh budgets.
+ * </p>
+ *
+ * <p>
+ * A registry created with the constructor is not shared with other executions. The budget of a file store is fixed
+ * by the first execution which uses it; an execution asking for another budget gets the existing one and should warn
+ * about it, see {@link IoScheduler#getPermits()}.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class IoSchedulers {
+    private static final Map<Object, IoSchedulers> SESSIONS = new WeakHashMap<>();
+
+    private final ConcurrentMap<FileStore, IoScheduler.Budget> budgets = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry of the session, creating it if it does not exist yet
+     *
+     * @param session key identifying the session or null for a registry which is not shared
+     * @return registry
+     * @since 0.0.1
+     */
+    public static IoSchedulers of(final Object session) {
+        if (session == null) {
+            return new IoSchedulers();
+        }
+        synchronized (SESSIONS) {
+            return SESSIONS.computeIfAbsent(session, key -> new IoSchedulers());
+        }
+    }
+
+    /**
+     * Returns a scheduler of the queue within the budget of the file store the path is located on, creating the budget
+     * with the number of permits if it does not exist yet
+     *
+     * @param path path whose nearest existing ancestor determines the file store
+     * @param permits maximum number of tasks running concurrently on the file store
+     * @param queue queue of the tasks, e.g. the id of the module
+     * @return scheduler
+     * @throws IOException if the file store cannot be determined
+     * @throws IllegalArgumentException if the budget is not positive
+     * @since 0.0.1
+     */
+    public IoScheduler get(final Path path, final int permits, final String queue) throws IOException {
+        requireNonNull(path, "path");
+        requireNonNull(queue, "queue");
+        Preconditions.checkArgument(permits > 0, "permits > 0 expected but actual %s", permits);
+        var existing = path.toAbsolutePath();
+        while (existing.getParent() != null && !Files.exists(existing)) {
+            existing = existing.getParent();
+        }
+        return new IoScheduler(budgets.computeIfAbsent(Files.getFileStore(existing),
+                store -> new IoScheduler.Budget(store, permits)), queue);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("budgets", budgets.values()).toString();
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+
+/**
+ * File system operation on a single entry
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+@FunctionalInterface
+public interface IoTask {
+    /**
+     * Runs the operation
+     *
+     * @throws IOException if the operation fails
+     * @since 0.0.1
+     */
+    void run() throws IOException;
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import java.util.Locale;
+
+/**
+ * Ways of materializing a file at its target
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public enum LinkMode {
+    /**
+     * Physical copy
+     *
+     * @since 0.0.1
+     */
+    COPY,
+
+    /**
+     * Hard link to the source; copies if source and target are located on different file stores
+     *
+     * @since 0.0.1
+     */
+    HARDLINK,
+
+    /**
+     * Symbolic link to the absolute source path
+     *
+     * @since 0.0.1
+     */
+    SYMLINK,
+
+    /**
+     * Hard link to the source; copies whenever the link cannot be created
+     *
+     * @since 0.0.1
+     */
+    HARDLINK_OR_COPY;
+
+    /**
+     * Returns the mode for a configuration value like {@code hardlink-or-copy}
+     *
+     * @param value configuration value
+     * @return link mode
+     * @throws IllegalArgumentException if there is no such mode
+     * @since 0.0.1
+     */
+    public static LinkMode of(final String value) {
+        requireNonNull(value, "value");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+}
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of the entries an operation has completed, which lets a run killed halfway resume
+ *
+ * <p>
+ * The journal is a text file starting with a header which names operation, source and target, followed by a line for
+ * every completed entry with the size and last modified time of its source and its relative path. An entry only
+ * counts as completed as long as its source still has the recorded size and last modified time, so a source which
+ * has been regenerated since is processed again. Entries are buffered and appended in batches, each followed by
+ * {@link FileChannel#force(boolean)}, so a checkpoint costs one sync per batch instead of one per entry. A batch is
+ * also appended once it covers {@value #CHECKPOINT_BYTES} bytes of entries, so a large entry is checkpointed right
+ * away, and once it is older than {@value #CHECKPOINT_MILLIS} milliseconds, which a daemon thread takes care of while
+ * the operation is busy with a slow entry; a shutdown hook appends what is left when the JVM exits. A line torn
+ * by a crash is discarded when the journal is opened again. A journal written for another operation, source or target
+ * is discarded as well. The journal is deleted once the operation has succeeded.
+ * </p>
+ *
+ * <p>
+ * The journal records that an entry has been completed, not that its content has reached the disk, so it protects
+ * against a killed build rather than against a crash of the whole machine, unless every entry is synced before it is
+ * recorded, see {@link Durability#PER_FILE}.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class OperationJournal implements Closeable {
+    /**
+     * Default number of entries appended at once
+     *
+     * @since 0.0.1
+     */
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+
+    /**
+     * Number of bytes of entries after which a batch is appended regardless of its size
+     *
+     * @since 0.0.1
+     */
+    public static final long CHECKPOINT_BYTES = 64L * 1024L * 1024L;
+
+    /**
+     * Number of milliseconds after which a batch is appended regardless of its size
+     *
+     * @since 0.0.1
+     */
+    public static final long CHECKPOINT_MILLIS = 1000L;
+
+    private static final String MAGIC = "files-maven-plugin-journal";
+    private static final int VERSION = 2;
+    private static final String SEPARATOR = "\t";
+    private static final int FIELDS = 3;
+    private static final ScheduledExecutorService FLUSHER = Executors.newSingleThreadScheduledExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("files-maven-plugin-journal-%d").build());
+    private static final Set<OperationJournal> UNCLOSED = ConcurrentHashMap.newKeySet();
+
+    static {
+        registerShutdownHook();
+    }
+
+    private final Path file;
+    private final int batchSize;
+    private final Map<String, String> completed;
+    private final FileChannel channel;
+    private final List<String> batch = new ArrayList<>();
+    private final Object lock = new Object();
+    private long batchBytes;
+    private long batchStart;
+    private IOException failure;
+    private ScheduledFuture<?> flush;
+
+    private OperationJournal(final Path file, final int batchSize, final Map<String, String> completed,
+            final FileChannel channel) {
+        this.file = file;
+        this.batchSize = batchSize;
+        this.completed = completed;
+        this.channel = channel;
+    }
+
+    /**
+     * Opens the journal and reads the entries completed by an earlier run of the same operation
+     *
+     * @param file journal file whose parent directories are created
+     * @param operation name of the operation, e.g. move
+     * @param source source of the operation
+     * @param target target of the operation
+     * @param batchSize number of entries appended at once
+     * @return journal
+     * @throws IOException if the journal cannot be read or written
+     * @throws IllegalArgumentException if the batch size is not positive
+     * @since 0.0.1
+     */
+    public static OperationJournal open(final Path file, final String operation, final Path source,
+            final Path target, final int batchSize) throws IOException {
+        requireNonNull(file, "file");
+        requireNonNull(operation, "operation");
+        requireNonNull(source, "source");
+        requireNonNull(target, "target");
+        Preconditions.checkArgument(batchSize > 0, "batchSize > 0 expected but actual %s", batchSize);
+        final var header = String.join("\t", MAGIC, String.valueOf(VERSION), operation, source.toString(),
+                target.toString()) + "\n";
+        final Map<String, String> completed = new HashMap<>();
+        var validLength = 0L;
+        if (Files.isRegularFile(file)) {
+            final var content = Files.readAllBytes(file);
+            var end = content.length;
+            while (end > 0 && content[end - 1] != '\n') {
+                end--;
+            }
+            final var text = new String(content, 0, end, StandardCharsets.UTF_8);
+            if (text.startsWith(header)) {
+                readEntries(text.substring(header.length()), completed);
+                validLength = end;
+            }
+        }
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        final var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(validLength);
+            channel.position(validLength);
+            if (validLength == 0L) {
+                write(channel, header);
+                channel.force(false);
+            }
+        } catch (final IOException exception) {
+            channel.close();
+            throw exception;
+        }
+        final var journal = new OperationJournal(file, batchSize, completed, channel);
+        UNCLOSED.add(journal);
+        journal.flush = FLUSHER.scheduleWithFixedDelay(journal::checkpointIfDue, CHECKPOINT_MILLIS, CHECKPOINT_MILLIS,
+                TimeUnit.MILLISECONDS);
+        return journal;
+    }
+
+    /**
+     * Returns true if an earlier run has completed the entry and its source still has the recorded size and last
+     * modified time
+     *
+     * @param relativePath path of the entry relative to the source
+     * @param attributes current attributes of the source of the entry
+     * @return true if the entry has been completed
+     * @since 0.0.1
+     */
+    public boolean isCompleted(final String relativePath, final BasicFileAttributes attributes) {
+        requireNonNull(relativePath, "relativePath");
+        requireNonNull(attributes, "attributes");
+        return stamp(attributes).equals(completed.get(relativePath));
+    }
+
+    /**
+     * Records a completed entry with the size and last modified time of its source; a batch which is full, covers
+     * {@value #CHECKPOINT_BYTES} bytes or is older than {@value #CHECKPOINT_MILLIS} milliseconds is appended and
+     * synced
+     *
+     * @param relativePath path of the entry relative to the source
+     * @param attributes attributes of the source of the entry
+     * @throws IOException if the batch cannot be appended
+     * @since 0.0.1
+     */
+    public void record(final String relativePath, final BasicFileAttributes attributes) throws IOException {
+        requireNonNull(relativePath, "relativePath");
+        requireNonNull(attributes, "attributes");
+        if (relativePath.indexOf('\n') != -1) {
+            return;
+        }
+        synchronized (lock) {
+            if (batch.isEmpty()) {
+                batchStart = System.nanoTime();
+            }
+            batch.add(stamp(attributes) + SEPARATOR + relativePath);
+            batchBytes += attributes.size();
+            if (batch.size() >= batchSize || batchBytes >= CHECKPOINT_BYTES || isDue()) {
+                checkpoint();
+            }
+        }
+    }
+
+    /**
+     * Appends and syncs the buffered entries
+     *
+     * @throws IOException if the entries cannot be appended
+     * @since 0.0.1
+     */
+    public void checkpoint() throws IOException {
+        synchronized (lock) {
+            if (failure != null) {
+                final var exception = new IOException("Journal could not be appended: " + file);
+                exception.initCause(failure);
+                throw exception;
+            }
+            if (batch.isEmpty() || !channel.isOpen()) {
+                return;
+            }
+            write(channel, String.join("\n", batch) + "\n");
+            channel.force(false);
+            batch.clear();
+            batchBytes = 0L;
+        }
+    }
+
+    /**
+     * Closes and deletes the journal after the operation has succeeded
+     *
+     * @throws IOException if the journal cannot be deleted
+     * @since 0.0.1
+     */
+    public void delete() throws IOException {
+        synchronized (lock) {
+            release();
+            batch.clear();
+            channel.close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Appends the buffered entries and closes the journal, which is kept for the next run
+     *
+     * @throws IOException if the entries cannot be appended
+     * @since 0.0.1
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (lock) {
+            if (!channel.isOpen()) {
+                return;
+            }
+            release();
+            try {
+                checkpoint();
+            } finally {
+                channel.close();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("batchSize", batchSize)
+                .add("completed", completed.size()).toString();
+    }
+
+    private void release() {
+        UNCLOSED.remove(this);
+        flush.cancel(false);
+    }
+
+    private boolean isDue() {
+        return !batch.isEmpty()
+                && TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batchStart) >= CHECKPOINT_MILLIS;
+    }
+
+    /**
+     * Appends a batch which has been waiting too long; a failure is kept and thrown by the next checkpoint
+     */
+    private void checkpointIfDue() {
+        synchronized (lock) {
+            if (failure != null || !isDue()) {
+                return;
+            }
+            try {
+                checkpoint();
+            } catch (final IOException exception) {
+                failure = exception;
+            }
+        }
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static void registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            for (final var journal : UNCLOSED) {
+                synchronized (journal.lock) {
+                    try {
+                        journal.checkpoint();
+                    } catch (final IOException exception) {
+                        journal.failure = exception;
+                    }
+                }
+            }
+        }, "files-maven-plugin-journal-shutdown"));
+    }
+
+    private static void readEntries(final String text, final Map<String, String> completed) {
+        for (final var line : text.split("\n")) {
+            final var fields = line.split(SEPARATOR, FIELDS);
+            if (fields.length == FIELDS) {
+                completed.put(fields[2], fields[0] + SEPARATOR + fields[1]);
+            }
+        }
+    }
+
+    private static String stamp(final BasicFileAttributes attributes) {
+        return attributes.size() + SEPARATOR + attributes.lastModifiedTime().toMillis();
+    }
+
+    private static void write(final FileChannel channel, final String text) throws IOException {
+        final var buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
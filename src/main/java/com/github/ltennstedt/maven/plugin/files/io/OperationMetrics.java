@@ -0,0 +1,315 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counters and timers of a copy, move or delete operation which may be updated by several threads
+ *
+ * <p>
+ * The walk time is the wall-clock time of the traversal without the file operations which ran on the walking thread,
+ * the I/O time is the sum of the durations of all file operations. Per-file latencies are recorded in a histogram with
+ * logarithmic buckets, so percentiles are accurate to 12.5% and the memory does not depend on the number of files.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class OperationMetrics {
+    private static final int LINEAR_BUCKETS = 16;
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int MIN_EXPONENT = 4;
+    private static final int BUCKETS = LINEAR_BUCKETS + (Long.SIZE - 1 - MIN_EXPONENT) * SUB_BUCKETS;
+    private static final double MEBIBYTE = 1024.0 * 1024.0;
+
+    private final String operation;
+    private final LongAdder files = new LongAdder();
+    private final LongAdder directories = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder skippedEntries = new LongAdder();
+    private final LongAdder deletedEntries = new LongAdder();
+    private final LongAdder ioNanos = new LongAdder();
+    private final LongAdder walkingThreadIoNanos = new LongAdder();
+    private final AtomicLongArray latencies = new AtomicLongArray(BUCKETS);
+    private final AtomicLong walkingThreadId = new AtomicLong(-1L);
+    private final AtomicLong startNanos = new AtomicLong();
+    private final AtomicLong walkedNanos = new AtomicLong();
+    private final AtomicLong finishedNanos = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param operation name of the operation, e.g. copy
+     * @since 0.0.1
+     */
+    public OperationMetrics(final String operation) {
+        this.operation = requireNonNull(operation, "operation");
+    }
+
+    /**
+     * Starts the clock and the walk on the calling thread
+     *
+     * @since 0.0.1
+     */
+    public void start() {
+        walkingThreadId.set(Thread.currentThread().getId());
+        final var now = System.nanoTime();
+        startNanos.set(now);
+        walkedNanos.set(now);
+        finishedNanos.set(now);
+    }
+
+    /**
+     * Marks the end of the walk; file operations may still be running
+     *
+     * @since 0.0.1
+     */
+    public void walked() {
+        walkedNanos.set(System.nanoTime());
+    }
+
+    /**
+     * Stops the clock
+     *
+     * @since 0.0.1
+     */
+    public void finish() {
+        finishedNanos.set(System.nanoTime());
+    }
+
+    /**
+     * Counts a visited directory
+     *
+     * @since 0.0.1
+     */
+    public void directoryVisited() {
+        directories.increment();
+    }
+
+    /**
+     * Counts a visited file
+     *
+     * @since 0.0.1
+     */
+    public void fileVisited() {
+        files.increment();
+    }
+
+    /**
+     * Counts an entry which was skipped because it is filtered or up to date
+     *
+     * @since 0.0.1
+     */
+    public void skipped() {
+        skippedEntries.increment();
+    }
+
+    /**
+     * Counts an entry of the target which was deleted because it has no source
+     *
+     * @since 0.0.1
+     */
+    public void deleted() {
+        deletedEntries.increment();
+    }
+
+    /**
+     * Adds transferred bytes
+     *
+     * @param count number of bytes
+     * @since 0.0.1
+     */
+    public void transferred(final long count) {
+        bytes.add(count);
+    }
+
+    /**
+     * Runs the operation on a single file and records its latency
+     *
+     * @param task operation on a single file
+     * @throws IOException if the operation fails
+     * @since 0.0.1
+     */
+    public void measure(final IoTask task) throws IOException {
+        requireNonNull(task, "task");
+        final var start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            final var nanos = System.nanoTime() - start;
+            ioNanos.add(nanos);
+            if (Thread.currentThread().getId() == walkingThreadId.get()) {
+                walkingThreadIoNanos.add(nanos);
+            }
+            latencies.incrementAndGet(bucket(nanos));
+        }
+    }
+
+    /**
+     * Returns the latency in nanoseconds which the given fraction of the file operations did not exceed
+     *
+     * @param fraction fraction between 0 and 1, e.g. 0.99
+     * @return upper bound of the latency, 0 if no file operation was recorded
+     * @throws IllegalArgumentException if the fraction is not between 0 and 1
+     * @since 0.0.1
+     */
+    public long percentile(final double fraction) {
+        Preconditions.checkArgument(fraction >= 0.0 && fraction <= 1.0, "0 <= fraction <= 1 expected but actual %s",
+                fraction);
+        var count = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            count += latencies.get(i);
+        }
+        final var rank = Math.max(1L, (long) Math.ceil(fraction * count));
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++) {
+            seen += latencies.get(i);
+            if (seen >= rank) {
+                return upperBound(i);
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns a one-line summary for the log
+     *
+     * @return summary
+     * @since 0.0.1
+     */
+    public String summary() {
+        return String.format(Locale.ROOT,
+                "%d files, %d directories, %.1f MiB, %d skipped, %d deleted in %d ms (walk %d ms, I/O %d ms, p50 %d us,"
+                        + " p99 %d us)",
+                files.sum(), directories.sum(), bytes.sum() / MEBIBYTE, skippedEntries.sum(), deletedEntries.sum(),
+                millis(totalNanos()), millis(walkNanos()), millis(ioNanos.sum()), micros(percentile(0.5)),
+                micros(percentile(0.99)));
+    }
+
+    /**
+     * Writes the metrics as JSON object
+     *
+     * @param file report file whose parent directories are created
+     * @param source source of the operation
+     * @param target target of the operation; null if there is none
+     * @throws IOException if the report cannot be written
+     * @since 0.0.1
+     */
+    public void writeReport(final Path file, final Path source, final Path target) throws IOException {
+        requireNonNull(file, "file");
+        requireNonNull(source, "source");
+        final var json = new StringBuilder(512).append("{\n")
+                .append("  \"operation\": ").append(quote(operation)).append(",\n")
+                .append("  \"source\": ").append(quote(source.toString())).append(",\n")
+                .append("  \"target\": ").append(target == null ? "null" : quote(target.toString())).append(",\n")
+                .append("  \"files\": ").append(files.sum()).append(",\n")
+                .append("  \"directories\": ").append(directories.sum()).append(",\n")
+                .append("  \"bytes\": ").append(bytes.sum()).append(",\n")
+                .append("  \"skipped\": ").append(skippedEntries.sum()).append(",\n")
+                .append("  \"deleted\": ").append(deletedEntries.sum()).append(",\n")
+                .append("  \"totalMillis\": ").append(millis(totalNanos())).append(",\n")
+                .append("  \"walkMillis\": ").append(millis(walkNanos())).append(",\n")
+                .append("  \"ioMillis\": ").append(millis(ioNanos.sum())).append(",\n")
+                .append("  \"p50Micros\": ").append(micros(percentile(0.5))).append(",\n")
+                .append("  \"p99Micros\": ").append(micros(percentile(0.99))).append("\n}\n");
+        final var parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Files.writeString(file, json, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("operation", operation).add("files", files.sum())
+                .add("directories", directories.sum()).add("bytes", bytes.sum()).add("skipped", skippedEntries.sum())
+                .add("deleted", deletedEntries.sum()).toString();
+    }
+
+    private long totalNanos() {
+        return finishedNanos.get() - startNanos.get();
+    }
+
+    private long walkNanos() {
+        return Math.max(0L, walkedNanos.get() - startNanos.get() - walkingThreadIoNanos.sum());
+    }
+
+    /**
+     * Returns the bucket of the value: values below 16 have their own buckets, every further power of two is split
+     * into 8 linear sub-buckets
+     */
+    private static int bucket(final long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) Math.max(0L, value);
+        }
+        final var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        final var subBucket = (int) (value >>> exponent - SUB_BUCKET_BITS) & SUB_BUCKETS - 1;
+        return LINEAR_BUCKETS + (exponent - MIN_EXPONENT) * SUB_BUCKETS + subBucket;
+    }
+
+    private static long upperBound(final int bucket) {
+        if (bucket < LINEAR_BUCKETS) {
+            return bucket;
+        }
+        final var exponent = (bucket - LINEAR_BUCKETS) / SUB_BUCKETS + MIN_EXPONENT;
+        final var subBucket = (bucket - LINEAR_BUCKETS) % SUB_BUCKETS;
+        return ((long) SUB_BUCKETS + subBucket + 1L << exponent - SUB_BUCKET_BITS) - 1L;
+    }
+
+    private static long millis(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    private static long micros(final long nanos) {
+        return TimeUnit.NANOSECONDS.toMicros(nanos);
+    }
+
+    private static String quote(final String value) {
+        final var quoted = new StringBuilder(value.length() + 2).append('"');
+        for (final var c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\').append(c);
+            } else if (c < ' ') {
+                quoted.append(String.format(Locale.ROOT, "\\u%04x", (int) c));
+            } else {
+                quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
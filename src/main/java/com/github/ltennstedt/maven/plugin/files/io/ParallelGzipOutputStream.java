@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import com.google.common.base.MoreObjects;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip stream which compresses blocks of its input concurrently and writes them in order
+ *
+ * <p>
+ * Every block becomes a gzip member of its own. Concatenated members form a valid gzip stream which is read by gzip
+ * and {@link java.util.zip.GZIPInputStream} as a whole, like the output of pigz. At most two blocks per thread are in
+ * flight, so the memory held does not depend on the size of the input.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+final class ParallelGzipOutputStream extends OutputStream {
+    private static final int BLOCK_SIZE = 1024 * 1024;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final OutputStream out;
+    private final ExecutorService executor;
+    private final int maxPending;
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<>();
+    private byte[] block = new byte[BLOCK_SIZE];
+    private int count;
+    private boolean written;
+    private boolean closed;
+
+    ParallelGzipOutputStream(final OutputStream out, final int threads) {
+        super();
+        this.out = out;
+        executor = ExecutorMode.PLATFORM.newExecutor(threads);
+        maxPending = 2 * threads;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        block[count++] = (byte) b;
+        if (count == BLOCK_SIZE) {
+            submit();
+        }
+    }
+
+    @Override
+    public void write(final byte[] b, final int off, final int len) throws IOException {
+        var offset = off;
+        var remaining = len;
+        while (remaining > 0) {
+            final var chunk = Math.min(remaining, BLOCK_SIZE - count);
+            System.arraycopy(b, offset, block, count, chunk);
+            count += chunk;
+            offset += chunk;
+            remaining -= chunk;
+            if (count == BLOCK_SIZE) {
+                submit();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (count > 0 || !written) {
+                submit();
+            }
+            while (!pending.isEmpty()) {
+                writeFirst();
+            }
+        } finally {
+            executor.shutdownNow();
+            out.close();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("maxPending", maxPending).add("pending", pending.size())
+                .toString();
+    }
+
+    private void submit() throws IOException {
+        final var data = block;
+        final var length = count;
+        pending.add(executor.submit(() -> compress(data, length)));
+        block = new byte[BLOCK_SIZE];
+        count = 0;
+        written = true;
+        while (pending.size() > maxPending) {
+            writeFirst();
+        }
+    }
+
+    private void writeFirst() throws IOException {
+        try {
+            out.write(pending.removeFirst().get());
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Compressing was interrupted");
+            interrupted.initCause(exception);
+            throw interrupted;
+        } catch (final ExecutionException exception) {
+            throw new IOException("Compressing failed", exception);
+        }
+    }
+
+    private static byte[] compress(final byte[] data, final int length) throws IOException {
+        final var bytes = new ByteArrayOutputStream(length / 2 + BUFFER_SIZE);
+        try (var gzip = new GZIPOutputStream(bytes, BUFFER_SIZE)) {
+            gzip.write(data, 0, length);
+        }
+        return bytes.toByteArray();
+    }
+}
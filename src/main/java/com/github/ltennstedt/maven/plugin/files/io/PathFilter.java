@@ -0,0 +1,165 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Include and exclude patterns which are compiled once and evaluated against paths relative to the root of a tree
+ *
+ * <p>
+ * Patterns are globs in the style of Ant: {@code **} matches any number of directories including none, so
+ * {@code **}{@code /*.tmp} also matches {@code a.tmp}, and a trailing {@code /**} matches the directory itself as
+ * well. A directory matched by an exclude pattern with a trailing {@code /**} is pruned, i.e. not walked at all.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class PathFilter {
+    private static final String ANY_DIRS_PREFIX = "**/";
+    private static final String ANY_DIRS_SUFFIX = "/**";
+
+    private final List<String> includePatterns;
+    private final List<String> excludePatterns;
+    private final List<PathMatcher> includes;
+    private final List<PathMatcher> excludes;
+    private final List<PathMatcher> prunes;
+
+    /**
+     * Constructor
+     *
+     * @param includePatterns include patterns; null or empty to include everything
+     * @param excludePatterns exclude patterns; null or empty to exclude nothing
+     * @since 0.0.1
+     */
+    public PathFilter(final List<String> includePatterns, final List<String> excludePatterns) {
+        this.includePatterns = includePatterns == null ? ImmutableList.of() : ImmutableList.copyOf(includePatterns);
+        this.excludePatterns = excludePatterns == null ? ImmutableList.of() : ImmutableList.copyOf(excludePatterns);
+        final var includesBuilder = ImmutableList.<PathMatcher>builder();
+        for (final var pattern : this.includePatterns) {
+            final var normalized = normalize(pattern);
+            compile(normalized, includesBuilder);
+            if (normalized.endsWith(ANY_DIRS_SUFFIX)) {
+                compile(normalized.substring(0, normalized.length() - ANY_DIRS_SUFFIX.length()), includesBuilder);
+            }
+        }
+        final var excludesBuilder = ImmutableList.<PathMatcher>builder();
+        final var prunesBuilder = ImmutableList.<PathMatcher>builder();
+        for (final var pattern : this.excludePatterns) {
+            final var normalized = normalize(pattern);
+            compile(normalized, excludesBuilder);
+            if (normalized.endsWith(ANY_DIRS_SUFFIX)) {
+                compile(normalized.substring(0, normalized.length() - ANY_DIRS_SUFFIX.length()), prunesBuilder);
+            }
+        }
+        includes = includesBuilder.build();
+        excludes = excludesBuilder.build();
+        prunes = prunesBuilder.build();
+    }
+
+    /**
+     * Returns true if there are neither include nor exclude patterns
+     *
+     * @return true if everything is selected
+     * @since 0.0.1
+     */
+    public boolean isEmpty() {
+        return includes.isEmpty() && excludes.isEmpty();
+    }
+
+    /**
+     * Returns true if there are include patterns
+     *
+     * @return true if there are include patterns
+     * @since 0.0.1
+     */
+    public boolean hasIncludes() {
+        return !includes.isEmpty();
+    }
+
+    /**
+     * Returns true if the directory and everything below it is excluded
+     *
+     * @param relativePath path of the directory relative to the root
+     * @return true if the directory is pruned
+     * @since 0.0.1
+     */
+    public boolean isPruned(final Path relativePath) {
+        requireNonNull(relativePath, "relativePath");
+        return matches(prunes, relativePath);
+    }
+
+    /**
+     * Returns true if the entry is included and not excluded
+     *
+     * @param relativePath path of the entry relative to the root
+     * @return true if the entry is selected
+     * @since 0.0.1
+     */
+    public boolean isSelected(final Path relativePath) {
+        requireNonNull(relativePath, "relativePath");
+        return (includes.isEmpty() || matches(includes, relativePath)) && !matches(excludes, relativePath)
+                && !matches(prunes, relativePath);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("includes", includePatterns).add("excludes", excludePatterns)
+                .toString();
+    }
+
+    private static String normalize(final String pattern) {
+        requireNonNull(pattern, "pattern");
+        final var normalized = pattern.trim().replace('\\', '/');
+        return normalized.endsWith("/") ? normalized + "**" : normalized;
+    }
+
+    private static void compile(final String pattern, final ImmutableList.Builder<PathMatcher> builder) {
+        final Set<String> variants = pattern.startsWith(ANY_DIRS_PREFIX)
+                ? ImmutableSet.of(pattern, pattern.substring(ANY_DIRS_PREFIX.length()))
+                : ImmutableSet.of(pattern);
+        for (final var variant : variants) {
+            builder.add(FileSystems.getDefault().getPathMatcher("glob:" + variant));
+        }
+    }
+
+    private static boolean matches(final List<PathMatcher> matchers, final Path relativePath) {
+        for (final var matcher : matchers) {
+            if (matcher.matches(relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
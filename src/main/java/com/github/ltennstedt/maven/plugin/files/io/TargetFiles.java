@@ -0,0 +1,86 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * Writes files next to their target and renames them over it, so an existing target, which may be a hard link sharing
+ * its content with other files, is replaced instead of being overwritten in place
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+final class TargetFiles {
+    private static final String TEMP_INFIX = ".files-maven-plugin-";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private TargetFiles() {
+    }
+
+    /**
+     * Lets the writer write a temporary sibling of the target and renames it over the target; the temporary file is
+     * deleted if writing fails
+     *
+     * @param target target file
+     * @param writer writer
+     * @param <T> type of the result of the writer
+     * @return result of the writer
+     * @throws IOException if the temporary file cannot be written or renamed
+     */
+    static <T> T replace(final Path target, final Writer<T> writer) throws IOException {
+        final var temp = target.resolveSibling(
+                "." + target.getFileName() + TEMP_INFIX + UUID.randomUUID() + TEMP_SUFFIX);
+        var replaced = false;
+        try {
+            final var result = writer.write(temp);
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final AtomicMoveNotSupportedException exception) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+            replaced = true;
+            return result;
+        } finally {
+            if (!replaced) {
+                Files.deleteIfExists(temp);
+            }
+        }
+    }
+
+    /**
+     * Writes the content of a target to a temporary file
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    interface Writer<T> {
+        /**
+         * Writes the temporary file
+         *
+         * @param temp temporary file which does not exist yet
+         * @return result
+         * @throws IOException if the file cannot be written
+         */
+        T write(Path temp) throws IOException;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs {@link IoTask IoTasks} on a bounded number of threads and collects the entries which failed
+ *
+ * <p>
+ * The runner is fail-fast: after the first failure tasks which have not started yet are skipped and
+ * {@link #isFailed()} signals producers to stop submitting. With one thread all tasks run directly in the calling
+ * thread.
+ * </p>
+ *
+ * <p>
+ * At most {@code capacity} tasks are queued or running at a time, so the memory held by submitted tasks does not
+ * depend on the number of entries: a producer blocks in {@link #submit(Path, IoTask)} until a task has completed,
+ * while a task submitting further tasks runs them itself instead of waiting for its own pool. On
+ * {@link ExecutorMode#VIRTUAL virtual threads} every task gets its own thread and the capacity is the number of
+ * threads, so it caps the concurrency.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class TaskRunner implements AutoCloseable {
+    /**
+     * Number of tasks per thread which may be queued or running by default
+     *
+     * @since 0.0.1
+     */
+    public static final int DEFAULT_TASKS_PER_THREAD = 64;
+
+    private static final long CLOSE_TIMEOUT_SECONDS = 30L;
+    private static final ThreadLocal<TaskRunner> CURRENT = new ThreadLocal<>();
+
+    private final int threads;
+    private final int capacity;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final Map<Path, IOException> failures = new ConcurrentHashMap<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final Object monitor = new Object();
+    private IoScheduler scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads; values lower than 2 run all tasks in the calling thread
+     * @since 0.0.1
+     */
+    public TaskRunner(final int threads) {
+        this(threads, ExecutorMode.PLATFORM);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads; values lower than 2 run all tasks in the calling thread
+     * @param executorMode kind of threads
+     * @since 0.0.1
+     */
+    public TaskRunner(final int threads, final ExecutorMode executorMode) {
+        this(threads, requireNonNull(executorMode, "executorMode").isVirtual() ? threads
+                : Math.max(1, threads) * DEFAULT_TASKS_PER_THREAD, executorMode);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads; values lower than 2 run all tasks in the calling thread
+     * @param capacity maximum number of tasks which are queued or running at a time
+     * @param executorMode kind of threads
+     * @since 0.0.1
+     */
+    public TaskRunner(final int threads, final int capacity, final ExecutorMode executorMode) {
+        requireNonNull(executorMode, "executorMode");
+        this.threads = Math.max(1, threads);
+        this.capacity = Math.max(this.threads, capacity);
+        permits = new Semaphore(this.capacity);
+        executor = this.threads == 1 ? null : executorMode.newExecutor(this.threads);
+    }
+
+    /**
+     * Submits a task for the entry; blocks while the runner is at its capacity
+     *
+     * @param entry entry the task operates on
+     * @param task task
+     * @since 0.0.1
+     */
+    public void submit(final Path entry, final IoTask task) {
+        requireNonNull(entry, "entry");
+        requireNonNull(task, "task");
+        if (isFailed()) {
+            return;
+        }
+        if (executor == null || CURRENT.get() == this && !permits.tryAcquire()) {
+            pending.incrementAndGet();
+            run(entry, task);
+            return;
+        }
+        if (CURRENT.get() != this && !acquire(entry)) {
+            return;
+        }
+        pending.incrementAndGet();
+        executor.execute(() -> {
+            CURRENT.set(this);
+            try {
+                run(entry, task);
+            } finally {
+                CURRENT.remove();
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Runs a task for the entry on the calling thread, e.g. one reading a stream which only this thread may read,
+     * within the budget of the scheduler; a failure is recorded like the failure of a submitted task
+     *
+     * @param entry entry the task operates on
+     * @param task task
+     * @since 0.0.1
+     */
+    public void execute(final Path entry, final IoTask task) {
+        requireNonNull(entry, "entry");
+        requireNonNull(task, "task");
+        if (isFailed()) {
+            return;
+        }
+        pending.incrementAndGet();
+        run(entry, task);
+    }
+
+    /**
+     * Sets the {@link IoScheduler} whose budget every task has to stay within; null, which is the default, runs the
+     * tasks unthrottled
+     *
+     * @param scheduler scheduler or null
+     * @since 0.0.1
+     */
+    public void setScheduler(final IoScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Returns true if a task has failed
+     *
+     * @return true if a task has failed
+     * @since 0.0.1
+     */
+    public boolean isFailed() {
+        return !failures.isEmpty();
+    }
+
+    /**
+     * Waits until all submitted tasks have completed
+     *
+     * @throws FailedEntriesException if at least one task failed
+     * @throws InterruptedIOException if the calling thread was interrupted
+     * @since 0.0.1
+     */
+    public void await() throws FailedEntriesException, InterruptedIOException {
+        synchronized (monitor) {
+            while (pending.get() > 0) {
+                try {
+                    monitor.wait();
+                } catch (final InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    final var interrupted = new InterruptedIOException("Waiting for tasks was interrupted");
+                    interrupted.initCause(exception);
+                    throw interrupted;
+                }
+            }
+        }
+        if (isFailed()) {
+            throw new FailedEntriesException(failures);
+        }
+    }
+
+    /**
+     * Shuts the threads down and waits up to 30 seconds for running tasks to stop; tasks
+     * which have not started yet are discarded
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("threads", threads).add("capacity", capacity)
+                .add("pending", pending.get()).add("failures", failures.size()).toString();
+    }
+
+    private boolean acquire(final Path entry) {
+        try {
+            permits.acquire();
+            return true;
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Waiting for capacity was interrupted");
+            interrupted.initCause(exception);
+            failures.putIfAbsent(entry, interrupted);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the task through a {@link FutureTask} in the calling thread, which hands over whatever the task throws, so
+     * an unexpected failure is recorded with its cause
+     */
+    private void run(final Path entry, final IoTask task) {
+        try {
+            if (!isFailed()) {
+                final var future = new FutureTask<Void>(() -> {
+                    if (scheduler == null) {
+                        task.run();
+                    } else {
+                        scheduler.run(task);
+                    }
+                    return null;
+                });
+                future.run();
+                future.get();
+            }
+        } catch (final ExecutionException exception) {
+            failures.putIfAbsent(entry, toIOException(exception.getCause()));
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Running the task was interrupted");
+            interrupted.initCause(exception);
+            failures.putIfAbsent(entry, interrupted);
+        } finally {
+            if (pending.decrementAndGet() == 0) {
+                synchronized (monitor) {
+                    monitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private static IOException toIOException(final Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof UncheckedIOException) {
+            return ((UncheckedIOException) cause).getCause();
+        }
+        return new IOException("Unexpected failure", cause);
+    }
+}
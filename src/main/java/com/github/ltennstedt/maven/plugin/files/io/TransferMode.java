@@ -0,0 +1,278 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Strategies for transferring the content of a file to its target
+ *
+ * <p>
+ * An existing target is replaced, never written in place, since it may be a hard link sharing its content with the
+ * source or with other files: apart from {@link #FILES}, which deletes the target first, the content is written to a
+ * temporary sibling which is then renamed over the target.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public enum TransferMode {
+    /**
+     * {@link Files#copy(Path, Path, java.nio.file.CopyOption...)}
+     *
+     * @since 0.0.1
+     */
+    FILES {
+        @Override
+        public void transfer(final Path source, final Path target, final long chunkSize) throws IOException {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    },
+
+    /**
+     * {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} in chunks, which lets the
+     * kernel copy the bytes without user space buffers where supported
+     *
+     * @since 0.0.1
+     */
+    CHANNEL {
+        @Override
+        public void transfer(final Path source, final Path target, final long chunkSize) throws IOException {
+            TargetFiles.replace(target, temp -> {
+                transferChannel(source, temp, chunkSize);
+                return null;
+            });
+        }
+    },
+
+    /**
+     * Copy-on-write clone with {@code cp --reflink=always} on file systems supporting it, e.g. btrfs or XFS; falls
+     * back to {@link #CHANNEL} if cloning is not possible
+     *
+     * @since 0.0.1
+     */
+    REFLINK {
+        @Override
+        public void transfer(final Path source, final Path target, final long chunkSize) throws IOException {
+            TargetFiles.replace(target, temp -> {
+                if (!cloneWithReflink(source, temp)) {
+                    transferChannel(source, temp, chunkSize);
+                }
+                return null;
+            });
+        }
+    },
+
+    /**
+     * Copy through a buffer which skips blocks of zeros, so holes of sparse files, e.g. VM images, stay holes at the
+     * target on file systems supporting them instead of being written as zeros; the target is extended to its final
+     * size before any block is written, so dense files are preallocated up front and otherwise copied like with
+     * {@link #CHANNEL}, only slower because the bytes pass through user space
+     *
+     * @since 0.0.1
+     */
+    SPARSE {
+        @Override
+        public void transfer(final Path source, final Path target, final long chunkSize) throws IOException {
+            TargetFiles.replace(target, temp -> {
+                transferSparse(source, temp);
+                return null;
+            });
+        }
+    };
+
+    /**
+     * Default size of the chunks transferred at once
+     *
+     * @since 0.0.1
+     */
+    public static final long DEFAULT_CHUNK_SIZE = 64L * 1024L * 1024L;
+
+    private static final AtomicBoolean REFLINK_COMMAND_AVAILABLE = new AtomicBoolean(true);
+    private static final int SPARSE_BUFFER_SIZE = 1024 * 1024;
+    private static final int HOLE_BLOCK_SIZE = 4096;
+    private static final byte[] ZERO_BLOCK = new byte[HOLE_BLOCK_SIZE];
+
+    /**
+     * Transfers the content of the source to the target which is replaced if it exists
+     *
+     * @param source source file
+     * @param target target file
+     * @param chunkSize maximum number of bytes transferred at once
+     * @throws IOException if the transfer fails
+     * @since 0.0.1
+     */
+    public abstract void transfer(Path source, Path target, long chunkSize) throws IOException;
+
+    /**
+     * Returns the mode for a configuration value like {@code channel}
+     *
+     * @param value configuration value
+     * @return transfer mode
+     * @throws IllegalArgumentException if there is no such mode
+     * @since 0.0.1
+     */
+    public static TransferMode of(final String value) {
+        requireNonNull(value, "value");
+        return valueOf(value.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+    }
+
+    /**
+     * Copies the content through a buffer after extending the target to the size of the source, skipping the blocks of
+     * zeros which stay holes
+     */
+    private static void transferSparse(final Path source, final Path target) throws IOException {
+        try (var in = FileChannel.open(source, StandardOpenOption.READ);
+                var out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.SPARSE)) {
+            final var size = in.size();
+            final var buffer = ByteBuffer.allocate(SPARSE_BUFFER_SIZE);
+            if (size > 0L) {
+                out.write(ByteBuffer.wrap(new byte[1]), size - 1L);
+            }
+            var position = 0L;
+            while (position < size) {
+                final var length = readFully(in, buffer, position);
+                if (length == 0) {
+                    break;
+                }
+                writeNonZeroBlocks(out, buffer.array(), length, position);
+                position += length;
+            }
+            checkComplete(source, position, size);
+        }
+    }
+
+    /**
+     * Reads from the position until the buffer is full or the end of the file is reached
+     *
+     * @return number of bytes read
+     */
+    private static int readFully(final FileChannel in, final ByteBuffer buffer, final long position)
+            throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (in.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Writes the runs of blocks which contain non-zero bytes at their positions and skips the others
+     */
+    private static void writeNonZeroBlocks(final FileChannel out, final byte[] bytes, final int length,
+            final long position) throws IOException {
+        var runStart = -1;
+        for (var offset = 0; offset < length; offset += HOLE_BLOCK_SIZE) {
+            final var end = Math.min(offset + HOLE_BLOCK_SIZE, length);
+            final var zero = Arrays.mismatch(bytes, offset, end, ZERO_BLOCK, 0, end - offset) == -1;
+            if (zero && runStart >= 0) {
+                writeFully(out, ByteBuffer.wrap(bytes, runStart, offset - runStart), position + runStart);
+                runStart = -1;
+            } else if (!zero && runStart < 0) {
+                runStart = offset;
+            }
+        }
+        if (runStart >= 0) {
+            writeFully(out, ByteBuffer.wrap(bytes, runStart, length - runStart), position + runStart);
+        }
+    }
+
+    private static void writeFully(final FileChannel out, final ByteBuffer buffer, final long position)
+            throws IOException {
+        final var start = buffer.position();
+        while (buffer.hasRemaining()) {
+            out.write(buffer, position + buffer.position() - start);
+        }
+    }
+
+    /**
+     * Transfers the content with {@link FileChannel#transferTo(long, long, java.nio.channels.WritableByteChannel)} in
+     * chunks
+     */
+    private static void transferChannel(final Path source, final Path target, final long chunkSize)
+            throws IOException {
+        try (var in = FileChannel.open(source, StandardOpenOption.READ);
+                var out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                        StandardOpenOption.TRUNCATE_EXISTING)) {
+            final var size = in.size();
+            var position = 0L;
+            while (position < size) {
+                final var transferred = in.transferTo(position, Math.min(chunkSize, size - position), out);
+                if (transferred == 0L) {
+                    break;
+                }
+                position += transferred;
+            }
+            checkComplete(source, position, size);
+        }
+    }
+
+    /**
+     * Fails if the source ended before all of its bytes have been transferred, e.g. because it has been truncated
+     * meanwhile, instead of leaving a short target behind
+     */
+    private static void checkComplete(final Path source, final long position, final long size) throws IOException {
+        if (position < size) {
+            throw new IOException("Transferred only " + position + " of " + size + " bytes of " + source);
+        }
+    }
+
+    /**
+     * Clones the file with the cp command as long as it can be started
+     *
+     * @return true if the file has been cloned, false if cloning is not possible
+     */
+    static boolean cloneWithReflink(final Path source, final Path target) throws IOException {
+        if (!REFLINK_COMMAND_AVAILABLE.get()) {
+            return false;
+        }
+        final Process process;
+        try {
+            process = new ProcessBuilder("cp", "--reflink=always", source.toString(), target.toString())
+                    .redirectErrorStream(true).redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        } catch (final IOException exception) {
+            REFLINK_COMMAND_AVAILABLE.set(false);
+            return false;
+        }
+        try {
+            return process.waitFor() == 0;
+        } catch (final InterruptedException exception) {
+            process.destroy();
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Cloning " + source + " was interrupted");
+            interrupted.initCause(exception);
+            throw interrupted;
+        }
+    }
+}
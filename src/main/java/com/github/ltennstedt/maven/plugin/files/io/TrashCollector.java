@@ -0,0 +1,192 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+/**
+ * Deletes trees in the background after they have been renamed to a hidden trash sibling
+ *
+ * <p>
+ * The rename makes the tree disappear immediately while the actual deletion runs on a daemon thread. A shutdown hook
+ * waits a bounded time for pending deletions before the JVM, and therefore the Maven session, ends. Trash left over by
+ * a session which has ended earlier or has been killed is reaped by the next deletion in the same directory.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class TrashCollector {
+    private static final String TRASH_INFIX = ".files-maven-plugin-trash-";
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setDaemon(true).setNameFormat("files-maven-plugin-trash-%d").build());
+    private static final Set<Path> SCHEDULED = ConcurrentHashMap.newKeySet();
+    private static final AtomicLong PENDING = new AtomicLong();
+    private static final Object MONITOR = new Object();
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10L;
+
+    static {
+        registerShutdownHook();
+    }
+
+    private TrashCollector() {
+    }
+
+    /**
+     * Renames the file or directory atomically to a hidden trash sibling
+     *
+     * @param path file or directory
+     * @return trash path
+     * @throws IOException if the path cannot be renamed atomically
+     * @since 0.0.1
+     */
+    public static Path moveToTrash(final Path path) throws IOException {
+        requireNonNull(path, "path");
+        final var trash = path.resolveSibling("." + path.getFileName() + TRASH_INFIX + UUID.randomUUID());
+        Files.move(path, trash, StandardCopyOption.ATOMIC_MOVE);
+        return trash;
+    }
+
+    /**
+     * Deletes the trash on the background thread
+     *
+     * @param trash trash path
+     * @param threads number of threads used by the {@link TreeDeleter}
+     * @param onFailure callback for a failed deletion
+     * @since 0.0.1
+     */
+    public static void deleteInBackground(final Path trash, final int threads,
+            final BiConsumer<Path, IOException> onFailure) {
+        requireNonNull(trash, "trash");
+        requireNonNull(onFailure, "onFailure");
+        if (!SCHEDULED.add(trash)) {
+            return;
+        }
+        PENDING.incrementAndGet();
+        EXECUTOR.execute(() -> {
+            try {
+                new TreeDeleter(threads).delete(trash);
+            } catch (final IOException exception) {
+                onFailure.accept(trash, exception);
+            } finally {
+                SCHEDULED.remove(trash);
+                if (PENDING.decrementAndGet() == 0) {
+                    synchronized (MONITOR) {
+                        MONITOR.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Schedules the deletion of trash left over in the directory by earlier sessions
+     *
+     * @param dir directory
+     * @param threads number of threads used by the {@link TreeDeleter}
+     * @param onFailure callback for a failed deletion
+     * @throws IOException if the directory cannot be listed
+     * @since 0.0.1
+     */
+    public static void reap(final Path dir, final int threads, final BiConsumer<Path, IOException> onFailure)
+            throws IOException {
+        requireNonNull(dir, "dir");
+        try (var entries = Files.newDirectoryStream(dir,
+                entry -> entry.getFileName().toString().contains(TRASH_INFIX))) {
+            for (final var entry : entries) {
+                deleteInBackground(entry, threads, onFailure);
+            }
+        }
+    }
+
+    /**
+     * Waits until all scheduled deletions have completed
+     *
+     * @throws InterruptedIOException if the calling thread was interrupted
+     * @since 0.0.1
+     */
+    public static void awaitPending() throws InterruptedIOException {
+        synchronized (MONITOR) {
+            while (PENDING.get() > 0) {
+                waitOnMonitor(0L);
+            }
+        }
+    }
+
+    /**
+     * Waits until all scheduled deletions have completed or the timeout has elapsed
+     *
+     * @param timeout maximum time to wait
+     * @param unit unit of the timeout
+     * @return true if all deletions have completed, false if some are still pending
+     * @throws InterruptedIOException if the calling thread was interrupted
+     * @since 0.0.1
+     */
+    public static boolean awaitPending(final long timeout, final TimeUnit unit) throws InterruptedIOException {
+        requireNonNull(unit, "unit");
+        final var deadline = System.nanoTime() + unit.toNanos(timeout);
+        synchronized (MONITOR) {
+            while (PENDING.get() > 0) {
+                final var remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remaining <= 0L) {
+                    return false;
+                }
+                waitOnMonitor(remaining);
+            }
+        }
+        return true;
+    }
+
+    private static void waitOnMonitor(final long millis) throws InterruptedIOException {
+        try {
+            MONITOR.wait(millis);
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            final var interrupted = new InterruptedIOException("Waiting for trash deletion was interrupted");
+            interrupted.initCause(exception);
+            throw interrupted;
+        }
+    }
+
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static void registerShutdownHook() {
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                awaitPending(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (final InterruptedIOException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }, "files-maven-plugin-trash-shutdown"));
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Deletes trees bottom-up without materializing them
+ *
+ * <p>
+ * The tree is walked by a {@link TreeWalker}: files are deleted by its workers and a directory is deleted as soon as
+ * the last of its entries is gone, so only the directories currently in progress are held in memory.
+ * </p>
+ *
+ * <p>
+ * A {@link PathFilter} restricts the deletion to the selected entries below the root: pruned directories are not
+ * walked and a directory is only deleted if it is selected and empty afterwards.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class TreeDeleter {
+    private final int threads;
+    private final ExecutorMode executorMode;
+    private final PathFilter pathFilter;
+    private final OperationMetrics metrics;
+    private IoScheduler scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads deleting files concurrently
+     * @since 0.0.1
+     */
+    public TreeDeleter(final int threads) {
+        this(threads, new PathFilter(null, null));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads deleting files concurrently
+     * @param pathFilter filter for the entries below the root
+     * @since 0.0.1
+     */
+    public TreeDeleter(final int threads, final PathFilter pathFilter) {
+        this(threads, pathFilter, new OperationMetrics("delete"));
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads deleting files concurrently
+     * @param pathFilter filter for the entries below the root
+     * @param metrics metrics which are updated while deleting
+     * @since 0.0.1
+     */
+    public TreeDeleter(final int threads, final PathFilter pathFilter, final OperationMetrics metrics) {
+        this(threads, ExecutorMode.PLATFORM, pathFilter, metrics);
+    }
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads deleting files concurrently
+     * @param executorMode kind of threads
+     * @param pathFilter filter for the entries below the root
+     * @param metrics metrics which are updated while deleting
+     * @since 0.0.1
+     */
+    public TreeDeleter(final int threads, final ExecutorMode executorMode, final PathFilter pathFilter,
+            final OperationMetrics metrics) {
+        this.threads = Math.max(1, threads);
+        this.executorMode = requireNonNull(executorMode, "executorMode");
+        this.pathFilter = requireNonNull(pathFilter, "pathFilter");
+        this.metrics = requireNonNull(metrics, "metrics");
+    }
+
+    /**
+     * Sets the {@link IoScheduler} within whose budget the files are deleted; null, which is the default, deletes them
+     * unthrottled
+     *
+     * @param scheduler scheduler or null
+     * @since 0.0.1
+     */
+    public void setScheduler(final IoScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Deletes the file or the directory with all its content
+     *
+     * @param root file or directory
+     * @throws IOException if an entry cannot be deleted
+     * @since 0.0.1
+     */
+    public void delete(final Path root) throws IOException {
+        requireNonNull(root, "root");
+        if (!Files.isDirectory(root, LinkOption.NOFOLLOW_LINKS)) {
+            metrics.fileVisited();
+            metrics.walked();
+            metrics.measure(() -> {
+                if (scheduler == null) {
+                    Files.delete(root);
+                } else {
+                    scheduler.run(() -> Files.delete(root));
+                }
+            });
+            return;
+        }
+        final var walker = new TreeWalker(threads, executorMode, pathFilter, metrics);
+        walker.setScheduler(scheduler);
+        walker.walk(root, new EntryVisitor() {
+            @Override
+            public void visitFile(final Path file, final BasicFileAttributes attributes, final Path relativePath)
+                    throws IOException {
+                Files.delete(file);
+            }
+
+            @Override
+            public void leaveDirectory(final Path dir, final Path relativePath) throws IOException {
+                deleteDirectory(dir, relativePath);
+            }
+        });
+    }
+
+    /**
+     * Deletes the selected files below the directory and then every directory which has become empty, so entries which
+     * are not selected survive together with their ancestors; the filter is evaluated against paths relative to the
+     * root, an ancestor of the directory
+     *
+     * @param root root against which the filter is evaluated
+     * @param dir directory below the root
+     * @param pathFilter filter for the entries below the root
+     * @throws IOException if an entry cannot be deleted
+     * @since 0.0.1
+     */
+    public static void deleteSelected(final Path root, final Path dir, final PathFilter pathFilter)
+            throws IOException {
+        requireNonNull(root, "root");
+        requireNonNull(dir, "dir");
+        requireNonNull(pathFilter, "pathFilter");
+        if (pathFilter.isEmpty()) {
+            new TreeDeleter(1).delete(dir);
+            return;
+        }
+        Files.walkFileTree(dir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(final Path entry, final BasicFileAttributes attrs) {
+                return pathFilter.isPruned(root.relativize(entry)) ? FileVisitResult.SKIP_SUBTREE
+                        : FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(final Path entry, final BasicFileAttributes attrs) throws IOException {
+                if (pathFilter.isSelected(root.relativize(entry))) {
+                    Files.delete(entry);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(final Path entry, final IOException exc) throws IOException {
+                if (exc != null) {
+                    throw exc;
+                }
+                try {
+                    Files.delete(entry);
+                } catch (final DirectoryNotEmptyException ignored) {
+                    // kept since it still contains entries which are not selected
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("threads", threads).add("executorMode", executorMode)
+                .add("pathFilter", pathFilter).toString();
+    }
+
+    /**
+     * Deletes the walked directory; with a filter only if it is selected and empty
+     */
+    private void deleteDirectory(final Path dir, final Path relativePath) throws IOException {
+        if (pathFilter.isEmpty()) {
+            Files.delete(dir);
+        } else if (pathFilter.isSelected(relativePath)) {
+            try {
+                Files.delete(dir);
+            } catch (final DirectoryNotEmptyException exception) {
+                return;
+            }
+        }
+    }
+}
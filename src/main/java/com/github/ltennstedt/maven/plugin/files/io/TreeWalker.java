@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Walks a directory tree on the calling thread and hands the selected files over to the workers of a
+ * {@link TaskRunner}
+ *
+ * <p>
+ * The walk is streaming: {@link Files#walkFileTree(Path, java.nio.file.FileVisitor)} keeps only the directories on
+ * the current path open and the runner blocks the walk while it is at its capacity, so the memory is bounded by the
+ * depth of the tree and the capacity of the runner, not by the number of entries. A directory is left as soon as its
+ * own files and all its subdirectories have been processed, which allows deleting it in post-order while files are
+ * still processed concurrently elsewhere in the tree.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class TreeWalker {
+    private final int threads;
+    private final ExecutorMode executorMode;
+    private final PathFilter pathFilter;
+    private final OperationMetrics metrics;
+    private IoScheduler scheduler;
+
+    /**
+     * Constructor
+     *
+     * @param threads number of threads processing files concurrently
+     * @param executorMode kind of threads
+     * @param pathFilter filter for the entries below the root
+     * @param metrics metrics which are updated while walking
+     * @since 0.0.1
+     */
+    public TreeWalker(final int threads, final ExecutorMode executorMode, final PathFilter pathFilter,
+            final OperationMetrics metrics) {
+        this.threads = Math.max(1, threads);
+        this.executorMode = requireNonNull(executorMode, "executorMode");
+        this.pathFilter = requireNonNull(pathFilter, "pathFilter");
+        this.metrics = requireNonNull(metrics, "metrics");
+    }
+
+    /**
+     * Sets the {@link IoScheduler} within whose budget the files are processed; null, which is the default, processes
+     * them unthrottled
+     *
+     * @param scheduler scheduler or null
+     * @since 0.0.1
+     */
+    public void setScheduler(final IoScheduler scheduler) {
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Walks the directory and waits until all files have been processed and all directories have been left
+     *
+     * @param root root directory
+     * @param visitor visitor
+     * @throws FailedEntriesException if entries could not be processed
+     * @throws IOException if the walk fails
+     * @since 0.0.1
+     */
+    public void walk(final Path root, final EntryVisitor visitor) throws IOException {
+        requireNonNull(root, "root");
+        requireNonNull(visitor, "visitor");
+        try (var runner = new TaskRunner(threads, executorMode)) {
+            runner.setScheduler(scheduler);
+            Files.walkFileTree(root, new SimpleFileVisitor<>() {
+                private final Deque<PendingDirectory> path = new ArrayDeque<>();
+
+                @Override
+                public FileVisitResult preVisitDirectory(final Path dir, final BasicFileAttributes attrs)
+                        throws IOException {
+                    final var relativePath = root.relativize(dir);
+                    if (!dir.equals(root) && pathFilter.isPruned(relativePath)) {
+                        metrics.skipped();
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    metrics.directoryVisited();
+                    final var parent = path.peek();
+                    if (parent != null) {
+                        parent.pending.incrementAndGet();
+                    }
+                    path.push(new PendingDirectory(dir, relativePath, parent));
+                    visitor.enterDirectory(dir, relativePath);
+                    return runner.isFailed() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(final Path file, final BasicFileAttributes attrs) {
+                    final var relativePath = root.relativize(file);
+                    if (!pathFilter.isSelected(relativePath)) {
+                        metrics.skipped();
+                        return FileVisitResult.CONTINUE;
+                    }
+                    metrics.fileVisited();
+                    final var node = path.element();
+                    node.pending.incrementAndGet();
+                    runner.submit(file, () -> {
+                        metrics.measure(() -> visitor.visitFile(file, attrs, relativePath));
+                        complete(node, visitor);
+                    });
+                    return runner.isFailed() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult postVisitDirectory(final Path dir, final IOException exc) throws IOException {
+                    if (exc != null) {
+                        throw exc;
+                    }
+                    complete(path.pop(), visitor);
+                    return runner.isFailed() ? FileVisitResult.TERMINATE : FileVisitResult.CONTINUE;
+                }
+            });
+            metrics.walked();
+            runner.await();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("threads", threads).add("executorMode", executorMode)
+                .add("pathFilter", pathFilter).toString();
+    }
+
+    /**
+     * Leaves the directory and then its ancestors when their last pending entry has completed
+     */
+    private static void complete(final PendingDirectory node, final EntryVisitor visitor) throws IOException {
+        var current = node;
+        while (current != null && current.pending.decrementAndGet() == 0) {
+            visitor.leaveDirectory(current.dir, current.relativePath);
+            current = current.parent;
+        }
+    }
+
+    /**
+     * Directory which is left when its own walk and all its files and subdirectories have completed
+     */
+    private static final class PendingDirectory {
+        private final Path dir;
+        private final Path relativePath;
+        private final PendingDirectory parent;
+        private final AtomicInteger pending = new AtomicInteger(1);
+
+        private PendingDirectory(final Path dir, final Path relativePath, final PendingDirectory parent) {
+            this.dir = dir;
+            this.relativePath = relativePath;
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static java.util.Objects.requireNonNull;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+
+/**
+ * Decides whether a target file is an up-to-date copy of its source
+ *
+ * <p>
+ * Files of different size are never up to date. Otherwise the last modified times are compared or, if a digest
+ * algorithm is given, the digests of the contents.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class UpToDateCheck {
+    private final String digestAlgorithm;
+
+    /**
+     * Constructor
+     *
+     * @param digestAlgorithm digest algorithm or null to compare the last modified times
+     * @throws IllegalArgumentException if the digest algorithm is not supported
+     * @since 0.0.1
+     */
+    public UpToDateCheck(final String digestAlgorithm) {
+        if (digestAlgorithm != null) {
+            Digests.newDigest(digestAlgorithm);
+        }
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    /**
+     * Returns true if the target is an up-to-date copy of the source
+     *
+     * @param source source file
+     * @param sourceAttributes attributes of the source file
+     * @param target target file
+     * @return true if the target is up to date
+     * @throws IOException if the files cannot be read
+     * @since 0.0.1
+     */
+    public boolean isUpToDate(final Path source, final BasicFileAttributes sourceAttributes, final Path target)
+            throws IOException {
+        requireNonNull(source, "source");
+        requireNonNull(sourceAttributes, "sourceAttributes");
+        requireNonNull(target, "target");
+        final BasicFileAttributes targetAttributes;
+        try {
+            targetAttributes = Files.readAttributes(target, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (final NoSuchFileException exception) {
+            return false;
+        }
+        if (!targetAttributes.isRegularFile() || targetAttributes.size() != sourceAttributes.size()) {
+            return false;
+        }
+        if (digestAlgorithm == null) {
+            return targetAttributes.lastModifiedTime().toMillis() == sourceAttributes.lastModifiedTime().toMillis();
+        }
+        return Arrays.equals(Digests.digest(source, digestAlgorithm), Digests.digest(target, digestAlgorithm));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("digestAlgorithm", digestAlgorithm).toString();
+    }
+}
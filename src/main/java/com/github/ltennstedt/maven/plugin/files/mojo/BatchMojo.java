@@ -0,0 +1,187 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.github.ltennstedt.maven.plugin.files.io.FailedEntriesException;
+import com.github.ltennstedt.maven.plugin.files.io.TaskRunner;
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Mojo for running many copy, move and delete operations in one execution
+ *
+ * <p>
+ * The operations are planned together: an operation waits for every earlier operation whose paths overlap with its
+ * own, all other operations run concurrently on a shared bounded pool of threads. Failures are reported by the
+ * position of the operation, so operations on the same paths are told apart.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+@Mojo(name = "batch")
+public final class BatchMojo extends AbstractMojo {
+    /**
+     * Operations in the order in which they are applied to overlapping paths
+     *
+     * @since 0.0.1
+     */
+    @Parameter(required = true)
+    private List<Operation> operations = new ArrayList<>();
+
+    /**
+     * Number of threads running independent operations concurrently
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "1")
+    private int threads = 1;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        getLog().info("Running " + operations.size() + " operations");
+        final var plan = plan();
+        final Map<Integer, Exception> failures = new ConcurrentSkipListMap<>();
+        try (var runner = new TaskRunner(threads)) {
+            plan.forEach(operation -> release(runner, operation, failures));
+            runner.await();
+        } catch (final FailedEntriesException exception) {
+            if (failures.isEmpty()) {
+                exception.getFailures()
+                        .forEach((entry, cause) -> getLog().error("Operation on " + entry + " failed: " + cause));
+            }
+            failures.forEach((index, cause) -> getLog().error("Operation " + (index + 1) + " "
+                    + operations.get(index) + " failed: " + cause));
+            throw failed(exception);
+        } catch (final IOException exception) {
+            throw failed(exception);
+        }
+        getLog().info("Batch successful");
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("operations", operations).add("threads", threads).toString();
+    }
+
+    /**
+     * Creates the mojos and links every operation to the later operations overlapping with it
+     */
+    private List<PendingOperation> plan() throws MojoFailureException {
+        final List<PendingOperation> plan = new ArrayList<>(operations.size());
+        for (final var operation : operations) {
+            final var mojo = operation.newMojo();
+            mojo.setLog(getLog());
+            final var pending = new PendingOperation(plan.size(), operation, mojo);
+            for (final var earlier : plan) {
+                if (earlier.operation.overlaps(operation)) {
+                    earlier.successors.add(pending);
+                    pending.predecessors.incrementAndGet();
+                }
+            }
+            plan.add(pending);
+        }
+        return plan;
+    }
+
+    /**
+     * Submits the operation once its last predecessor has completed; a failure is recorded by the index of the
+     * operation
+     */
+    private static void release(final TaskRunner runner, final PendingOperation pending,
+            final Map<Integer, Exception> failures) {
+        if (pending.predecessors.decrementAndGet() == 0) {
+            runner.submit(Path.of(pending.operation.getFile().getAbsolutePath()), () -> {
+                try {
+                    pending.mojo.execute();
+                } catch (final MojoExecutionException | MojoFailureException exception) {
+                    failures.put(pending.index, exception);
+                    throw new IOException(exception.getMessage(), exception);
+                }
+                pending.successors.forEach(successor -> release(runner, successor, failures));
+            });
+        }
+    }
+
+    private MojoExecutionException failed(final Exception exception) {
+        final var message = "Batch failed";
+        getLog().error(message);
+        return new MojoExecutionException(message, exception);
+    }
+
+    @VisibleForTesting
+    List<Operation> getOperations() {
+        return operations;
+    }
+
+    @VisibleForTesting
+    void setOperations(final List<Operation> operations) {
+        assert operations != null;
+        this.operations = operations;
+    }
+
+    @VisibleForTesting
+    int getThreads() {
+        return threads;
+    }
+
+    @VisibleForTesting
+    void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    /**
+     * Operation whose execution waits for its overlapping predecessors
+     */
+    private static final class PendingOperation {
+        private final int index;
+        private final Operation operation;
+        private final AbstractMojo mojo;
+        private final List<PendingOperation> successors = new ArrayList<>();
+        private final AtomicInteger predecessors = new AtomicInteger(1);
+
+        private PendingOperation(final int index, final Operation operation, final AbstractMojo mojo) {
+            this.index = index;
+            this.operation = operation;
+            this.mojo = mojo;
+        }
+    }
+}
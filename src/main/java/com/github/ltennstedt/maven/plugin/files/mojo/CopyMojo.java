@@ -18,6 +18,28 @@ package com.github.ltennstedt.maven.plugin.files.mojo;
 
 import static java.util.Objects.requireNonNull;
 
+import com.github.ltennstedt.maven.plugin.files.io.ArchiveExtractor;
+import com.github.ltennstedt.maven.plugin.files.io.ArchiveFormat;
+import com.github.ltennstedt.maven.plugin.files.io.ArchiveWriter;
+import com.github.ltennstedt.maven.plugin.files.io.ChecksumManifest;
+import com.github.ltennstedt.maven.plugin.files.io.ContentCache;
+import com.github.ltennstedt.maven.plugin.files.io.CopyManifest;
+import com.github.ltennstedt.maven.plugin.files.io.Durability;
+import com.github.ltennstedt.maven.plugin.files.io.EntryVisitor;
+import com.github.ltennstedt.maven.plugin.files.io.ExecutorMode;
+import com.github.ltennstedt.maven.plugin.files.io.FailedEntriesException;
+import com.github.ltennstedt.maven.plugin.files.io.FileCopier;
+import com.github.ltennstedt.maven.plugin.files.io.FileSyncer;
+import com.github.ltennstedt.maven.plugin.files.io.IoScheduler;
+import com.github.ltennstedt.maven.plugin.files.io.IoSchedulers;
+import com.github.ltennstedt.maven.plugin.files.io.LinkMode;
+import com.github.ltennstedt.maven.plugin.files.io.OperationJournal;
+import com.github.ltennstedt.maven.plugin.files.io.OperationMetrics;
+import com.github.ltennstedt.maven.plugin.files.io.PathFilter;
+import com.github.ltennstedt.maven.plugin.files.io.TransferMode;
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
+import com.github.ltennstedt.maven.plugin.files.io.TreeWalker;
+import com.github.ltennstedt.maven.plugin.files.io.UpToDateCheck;
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
@@ -25,13 +47,20 @@ import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 
 /**
  * Mojo for copying files and directories
@@ -42,6 +71,8 @@ import org.apache.maven.plugins.annotations.Parameter;
 @Beta
 @Mojo(name = "copy")
 public final class CopyMojo extends AbstractMojo {
+    private static final String DEFAULT_DIGEST_ALGORITHM = "SHA-256";
+
     /**
      * Source file or directory
      *
@@ -58,6 +89,237 @@ public final class CopyMojo extends AbstractMojo {
     @Parameter(required = true)
     private File into;
 
+    /**
+     * Number of threads copying the files of a directory concurrently
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "1")
+    private int threads = 1;
+
+    /**
+     * Threads on which the entries are processed: platform (a fixed pool of threads) or virtual (a virtual thread per
+     * entry on Java 21 or later, at most threads at a time, otherwise platform); with virtual, threads may be much
+     * higher, e.g. 256, to hide the latency of network file systems
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "platform")
+    private String executor = "platform";
+
+    /**
+     * Maximum number of entries which all executions of the plugin in the session process concurrently on one file
+     * store, e.g. 16 to keep the modules of a parallel build with -T from thrashing a shared disk; the modules with
+     * waiting entries take turns; the first execution using a file store fixes its budget and a different budget of a
+     * later execution is ignored with a warning; 0 disables the budget
+     *
+     * @since 0.0.1
+     */
+    @Parameter(property = "files.ioBudget", defaultValue = "0")
+    private int ioBudget;
+
+    /**
+     * Current session whose executions share the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
+     * Current project whose entries wait in a queue of their own within the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /**
+     * Ant-style patterns of the entries of a directory which are copied; everything if empty
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> includes = new ArrayList<>();
+
+    /**
+     * Ant-style patterns of the entries of a directory which are not copied; directories matched by a pattern ending
+     * with /** are not walked at all
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> excludes = new ArrayList<>();
+
+    /**
+     * Skips files whose target is up to date; by default size and last modified time are compared
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * Digest algorithm, e.g. SHA-256 or CRC32C, used by the incremental mode to compare the contents of files with
+     * equal size instead of their last modified times, by the dedup mode to detect duplicates and by the verify mode
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private String digestAlgorithm;
+
+    /**
+     * Manifest file, e.g. ${project.build.directory}/copy.idx, in which the incremental mode records the copied files
+     * so that later runs do not need to examine unchanged targets
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File manifest;
+
+    /**
+     * Strategy transferring the content of files: files ({@link Files#copy}), channel (zero-copy
+     * {@link java.nio.channels.FileChannel#transferTo} in chunks), reflink (copy-on-write clone with
+     * {@code cp --reflink=always} on btrfs or XFS, otherwise channel) or sparse (skips blocks of zeros so holes of
+     * sparse files stay holes); reflink starts a process per file and pays off for large files only
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "files")
+    private String transfer = "files";
+
+    /**
+     * Maximum number of bytes transferred at once by the channel and reflink strategies
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "67108864")
+    private long chunkSize = TransferMode.DEFAULT_CHUNK_SIZE;
+
+    /**
+     * How files are materialized in the target: copy, hardlink (copies across file systems), symlink or
+     * hardlink-or-copy (copies whenever linking fails)
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "copy")
+    private String linkMode = "copy";
+
+    /**
+     * Copies every content only once per execution and materializes files with a content which has already been
+     * copied as hard links to the first copy; duplicates are detected with the digest algorithm, SHA-256 by default
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean dedup;
+
+    /**
+     * Computes the digest of every file while it is copied, with the digest algorithm or SHA-256 by default, and writes
+     * the digests to a manifest next to the target, e.g. classes.sha256 for classes, which can be checked with
+     * {@code sha256sum -c}; the content is copied through a user space buffer instead of the transfer strategy
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean verify;
+
+    /**
+     * Content-addressed cache directory, e.g. on a volume shared by the agents of a build farm, from which files with
+     * a cached content are materialized as read-only hard links, or reflinks where hard links are not supported,
+     * instead of being copied from the source and to which copied contents are added the same way after their digest
+     * has been verified; targets linked to the cache must be replaced, not modified in place, and targets on another
+     * file store than the cache bypass it
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File cache;
+
+    /**
+     * Maximum size of the cache in bytes; the least recently used entries are evicted after the copy once an hour or
+     * once a tenth of the maximum size has been added
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "10737418240")
+    private long cacheSize = ContentCache.DEFAULT_MAX_SIZE;
+
+    /**
+     * Guarantee that the copied files have reached the disk when the copy succeeds: none (no syncs), batch (all files
+     * and then their directories are synced concurrently at the end) or per-file (every file and its directory are
+     * synced right after copying, which also makes the journal safe against a crash of the machine)
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "none")
+    private String durability = "none";
+
+    /**
+     * Journal file, e.g. ${project.build.directory}/files-maven-plugin/copy.journal, in which the copied files of a
+     * directory are recorded in batches; a run which has been killed leaves the journal behind and the next run skips
+     * the recorded files instead of copying everything again; the journal is deleted when the copy succeeds
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File journal;
+
+    /**
+     * Makes the target directory a mirror of the source like rsync --delete: besides copying new and changed files,
+     * entries of the target without a source are deleted once the walk has left their directory; entries which are not
+     * selected by includes and excludes are kept; applies to directories only
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean mirror;
+
+    /**
+     * Writes the selected entries straight into the archive into instead of copying them: zip, tar, tar.gz or tar.zst;
+     * zip entries are deflated and tar.gz blocks are compressed by threads workers, while tar.zst requires
+     * com.github.luben:zstd-jni as dependency of the plugin; incremental, dedup, verify and the link and transfer
+     * strategies do not apply
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private String archive;
+
+    /**
+     * Extracts the archive file into the directory into instead of copying it; the format is derived from the
+     * extension: zip (also jar, war and ear), tar, tar.gz, tgz or tar.zst; zip entries are decompressed by threads
+     * workers, includes and excludes select the entries and the incremental mode skips files whose target has the size
+     * and last modified time of their entry
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean extract;
+
+    /**
+     * JSON file, e.g. ${project.build.directory}/files-maven-plugin/copy.json, to which counters and timings of the
+     * execution are written
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File report;
+
+    private OperationMetrics metrics;
+    private UpToDateCheck upToDateCheck;
+    private CopyManifest copyManifest;
+    private ChecksumManifest checksums;
+    private OperationJournal operationJournal;
+    private FileCopier fileCopier;
+    private ContentCache contentCache;
+    private FileSyncer fileSyncer;
+    private PathFilter pathFilter;
+    private ExecutorMode executorMode;
+    private IoScheduler ioScheduler;
+    private ArchiveFormat archiveFormat;
+    private ArchiveFormat extractFormat;
+
     /**
      * {@inheritDoc}
      *
@@ -66,29 +328,68 @@ public final class CopyMojo extends AbstractMojo {
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         getLog().info("Copying " + file.getAbsolutePath() + " into " + into.getAbsolutePath());
+        archiveFormat = newArchiveFormat();
+        extractFormat = newExtractFormat();
+        upToDateCheck = newUpToDateCheck();
+        fileCopier = newFileCopier();
+        pathFilter = newPathFilter();
+        executorMode = newExecutorMode();
         final var start = Path.of(file.getAbsolutePath());
         final var target = Path.of(into.getAbsolutePath());
+        fileSyncer = newFileSyncer(target);
+        copyManifest = newCopyManifest(start, target);
+        checksums = newChecksumManifest(start, target);
+        fileCopier.setChecksums(checksums);
+        metrics = new OperationMetrics("copy");
+        metrics.start();
         try {
-            Files.createDirectories(target);
-            if (Files.isDirectory(start)) {
-                try (var walk = Files.walk(start)) {
-                    walk.forEach(w -> {
-                        try {
-                            Files.copy(w, target.resolve(start.relativize(w)), StandardCopyOption.REPLACE_EXISTING);
-                        } catch (final IOException exception) {
-                            throw new UncheckedIOException(exception);
-                        }
-                    });
-
-                }
+            ioScheduler = newIoScheduler(target);
+            if (archiveFormat != null) {
+                writeArchive(start, target);
+                fileSyncer.written(target);
+            } else if (extractFormat != null) {
+                final var extractor = new ArchiveExtractor(threads, executorMode, pathFilter, metrics);
+                extractor.setIncremental(incremental);
+                extractor.setScheduler(ioScheduler);
+                extractor.extract(start, extractFormat, target);
+                fileSyncer.writtenTree(target);
+            } else if (Files.isDirectory(start)) {
+                Files.createDirectories(target);
+                copyDirectoryJournaled(start, target);
             } else {
-                Files.copy(start, target, StandardCopyOption.REPLACE_EXISTING);
+                Files.createDirectories(target.toAbsolutePath().getParent());
+                metrics.fileVisited();
+                metrics.walked();
+                final var attributes = Files.readAttributes(start, BasicFileAttributes.class);
+                metrics.measure(() -> {
+                    if (ioScheduler == null) {
+                        copyFile(start, attributes, target, "");
+                    } else {
+                        ioScheduler.run(() -> copyFile(start, attributes, target, ""));
+                    }
+                });
             }
+            fileSyncer.finish();
+            if (copyManifest != null) {
+                copyManifest.save();
+            }
+            if (checksums != null) {
+                checksums.save();
+            }
+            if (contentCache != null) {
+                getLog().debug("Evicted " + contentCache.evict() + " entries from " + contentCache);
+            }
+            metrics.finish();
+            if (report != null) {
+                metrics.writeReport(Path.of(report.getAbsolutePath()), start, target);
+            }
+        } catch (final FailedEntriesException exception) {
+            exception.getFailures().forEach((entry, cause) -> getLog().error("Copying " + entry + " failed: " + cause));
+            throw failed(exception);
         } catch (final IOException | UncheckedIOException exception) {
-            final var message = "Copying failed";
-            getLog().error(message);
-            throw new MojoExecutionException(message, exception);
+            throw failed(exception);
         }
+        getLog().info("Copied " + metrics.summary());
         getLog().info("Copying successful");
     }
 
@@ -102,6 +403,319 @@ public final class CopyMojo extends AbstractMojo {
         return MoreObjects.toStringHelper(this).add("file", file).add("into", into).toString();
     }
 
+    private ArchiveFormat newArchiveFormat() throws MojoFailureException {
+        if (archive == null) {
+            return null;
+        }
+        final ArchiveFormat format;
+        try {
+            format = ArchiveFormat.of(archive);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        if (!format.isSupported()) {
+            throw new MojoFailureException("Archive " + archive + " requires com.github.luben:zstd-jni as dependency");
+        }
+        return format;
+    }
+
+    private ArchiveFormat newExtractFormat() throws MojoFailureException {
+        if (!extract) {
+            return null;
+        }
+        final ArchiveFormat format;
+        try {
+            format = ArchiveFormat.ofFileName(file.getName());
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        if (!format.isSupported()) {
+            throw new MojoFailureException("Archive " + file + " requires com.github.luben:zstd-jni as dependency");
+        }
+        return format;
+    }
+
+    private UpToDateCheck newUpToDateCheck() throws MojoFailureException {
+        if (!incremental || archiveFormat != null || extractFormat != null) {
+            return null;
+        }
+        try {
+            return new UpToDateCheck(digestAlgorithm);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+    }
+
+    private PathFilter newPathFilter() throws MojoFailureException {
+        try {
+            return new PathFilter(includes, excludes);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+    }
+
+    private FileCopier newFileCopier() throws MojoFailureException {
+        final var copier = new FileCopier();
+        try {
+            copier.setLinkMode(LinkMode.of(linkMode));
+            copier.setTransferMode(TransferMode.of(transfer));
+            copier.setChunkSize(chunkSize);
+            if (dedup) {
+                copier.setDedupAlgorithm(digestAlgorithm == null ? DEFAULT_DIGEST_ALGORITHM : digestAlgorithm);
+            }
+            if (cache != null) {
+                contentCache = new ContentCache(Path.of(cache.getAbsolutePath()), cacheSize);
+                copier.setCache(contentCache);
+            }
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        copier.setPreserveLastModified(incremental);
+        return copier;
+    }
+
+    private CopyManifest newCopyManifest(final Path start, final Path target) {
+        if (upToDateCheck == null || manifest == null) {
+            return null;
+        }
+        return CopyManifest.load(Path.of(manifest.getAbsolutePath()), start, target, digestAlgorithm);
+    }
+
+    private ChecksumManifest newChecksumManifest(final Path start, final Path target) throws MojoFailureException {
+        if (!verify || archiveFormat != null || extractFormat != null) {
+            return null;
+        }
+        final var algorithm = digestAlgorithm == null ? DEFAULT_DIGEST_ALGORITHM : digestAlgorithm;
+        final var root = Files.isDirectory(start) ? target : target.getParent();
+        try {
+            return ChecksumManifest.load(ChecksumManifest.fileFor(target, algorithm), root, algorithm);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+    }
+
+    private IoScheduler newIoScheduler(final Path path) throws IOException {
+        if (ioBudget < 1) {
+            return null;
+        }
+        final var scheduler = IoSchedulers.of(session == null ? null : session.getRequest()).get(path, ioBudget,
+                project == null ? "" : project.getId());
+        if (scheduler.getPermits() != ioBudget) {
+            getLog().warn("Using the I/O budget of " + scheduler.getPermits() + " set by an earlier execution for "
+                    + path);
+        }
+        return scheduler;
+    }
+
+    private FileSyncer newFileSyncer(final Path target) throws MojoFailureException {
+        try {
+            return new FileSyncer(Durability.of(durability), target, threads, executorMode);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+    }
+
+    private ExecutorMode newExecutorMode() throws MojoFailureException {
+        final ExecutorMode mode;
+        try {
+            mode = ExecutorMode.of(executor);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        if (mode == ExecutorMode.VIRTUAL && !ExecutorMode.isVirtualThreadsSupported()) {
+            getLog().warn("Virtual threads require Java 21 or later, using platform threads");
+        }
+        return mode;
+    }
+
+    private MojoExecutionException failed(final Exception exception) {
+        final var message = "Copying failed";
+        getLog().error(message);
+        return new MojoExecutionException(message, exception);
+    }
+
+    /**
+     * Copies the directory while recording the completed files in the journal, which is deleted on success and kept for
+     * resuming otherwise
+     */
+    private void copyDirectoryJournaled(final Path start, final Path target) throws IOException {
+        if (journal == null) {
+            copyDirectory(start, target);
+            return;
+        }
+        operationJournal = OperationJournal.open(Path.of(journal.getAbsolutePath()), "copy", start, target,
+                OperationJournal.DEFAULT_BATCH_SIZE);
+        var copied = false;
+        try {
+            copyDirectory(start, target);
+            fileSyncer.finish();
+            copied = true;
+        } finally {
+            if (copied) {
+                operationJournal.delete();
+            } else {
+                operationJournal.close();
+            }
+        }
+    }
+
+    /**
+     * Creates the directories while walking the tree and copies the files on the workers of the {@link TreeWalker}
+     */
+    private void copyDirectory(final Path start, final Path target) throws IOException {
+        final var walker = new TreeWalker(threads, executorMode, pathFilter, metrics);
+        walker.setScheduler(ioScheduler);
+        walker.walk(start, new EntryVisitor() {
+            @Override
+            public void enterDirectory(final Path dir, final Path relativePath) throws IOException {
+                final var to = target.resolve(relativePath);
+                if (mirror && Files.exists(to, LinkOption.NOFOLLOW_LINKS)
+                        && !Files.isDirectory(to, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.delete(to);
+                }
+                if (!pathFilter.hasIncludes()) {
+                    Files.createDirectories(to);
+                }
+            }
+
+            @Override
+            public void visitFile(final Path entry, final BasicFileAttributes attributes, final Path relativePath)
+                    throws IOException {
+                final var to = target.resolve(relativePath);
+                if (pathFilter.hasIncludes()) {
+                    Files.createDirectories(to.getParent());
+                }
+                if (mirror && Files.isDirectory(to, LinkOption.NOFOLLOW_LINKS)) {
+                    TreeDeleter.deleteSelected(target, to, pathFilter);
+                }
+                copyFile(entry, attributes, to,
+                        relativePath.toString().replace(entry.getFileSystem().getSeparator(), "/"));
+            }
+
+            @Override
+            public void leaveDirectory(final Path dir, final Path relativePath) throws IOException {
+                if (mirror) {
+                    deleteOrphans(dir, target, relativePath);
+                }
+            }
+        });
+    }
+
+    /**
+     * Deletes the entries of the target directory whose name does not occur in the source directory
+     */
+    private void deleteOrphans(final Path dir, final Path target, final Path relativePath) throws IOException {
+        final var to = target.resolve(relativePath);
+        if (!Files.isDirectory(to, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        final Set<String> names = new HashSet<>();
+        try (var entries = Files.newDirectoryStream(dir)) {
+            entries.forEach(entry -> names.add(entry.getFileName().toString()));
+        }
+        try (var entries = Files.newDirectoryStream(to)) {
+            for (final var entry : entries) {
+                final var name = entry.getFileName().toString();
+                final var orphan = relativePath.resolve(name);
+                if (names.contains(name)) {
+                    continue;
+                }
+                final var isDirectory = Files.isDirectory(entry, LinkOption.NOFOLLOW_LINKS);
+                if (isDirectory && !pathFilter.isPruned(orphan)) {
+                    TreeDeleter.deleteSelected(target, entry, pathFilter);
+                    metrics.deleted();
+                } else if (!isDirectory && pathFilter.isSelected(orphan)) {
+                    Files.delete(entry);
+                    metrics.deleted();
+                }
+            }
+        }
+    }
+
+    /**
+     * Walks the tree on a single thread, which adds the entries to the {@link ArchiveWriter} in order while its
+     * workers compress them
+     */
+    private void writeArchive(final Path start, final Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        try (var writer = new ArchiveWriter(target, archiveFormat, threads)) {
+            if (!Files.isDirectory(start)) {
+                metrics.fileVisited();
+                metrics.walked();
+                final var attributes = Files.readAttributes(start, BasicFileAttributes.class);
+                metrics.measure(() -> {
+                    writer.addFile(start, attributes, start.getFileName().toString());
+                    metrics.transferred(attributes.size());
+                });
+                return;
+            }
+            new TreeWalker(1, ExecutorMode.PLATFORM, pathFilter, metrics).walk(start, new EntryVisitor() {
+                @Override
+                public void enterDirectory(final Path dir, final Path relativePath) throws IOException {
+                    if (!pathFilter.hasIncludes() && !dir.equals(start)) {
+                        writer.addDirectory(dir, Files.readAttributes(dir, BasicFileAttributes.class),
+                                entryName(relativePath));
+                    }
+                }
+
+                @Override
+                public void visitFile(final Path entry, final BasicFileAttributes attributes,
+                        final Path relativePath) throws IOException {
+                    writer.addFile(entry, attributes, entryName(relativePath));
+                    metrics.transferred(attributes.size());
+                }
+            });
+        }
+    }
+
+    private static String entryName(final Path relativePath) {
+        return relativePath.toString().replace(relativePath.getFileSystem().getSeparator(), "/");
+    }
+
+    private void copyFile(final Path source, final BasicFileAttributes attributes, final Path to,
+            final String relativePath) throws IOException {
+        if (operationJournal == null) {
+            copyOrSkipFile(source, attributes, to, relativePath);
+            return;
+        }
+        if (operationJournal.isCompleted(relativePath, attributes) && Files.isRegularFile(to)
+                && Files.size(to) == attributes.size()) {
+            skipped(source, to);
+            return;
+        }
+        copyOrSkipFile(source, attributes, to, relativePath);
+        operationJournal.record(relativePath, attributes);
+    }
+
+    private void copyOrSkipFile(final Path source, final BasicFileAttributes attributes, final Path to,
+            final String relativePath) throws IOException {
+        if (upToDateCheck != null) {
+            if (copyManifest != null && copyManifest.isUpToDate(relativePath, attributes)) {
+                skipped(source, to);
+                return;
+            }
+            if (upToDateCheck.isUpToDate(source, attributes, to)) {
+                if (copyManifest != null) {
+                    copyManifest.record(relativePath, attributes);
+                }
+                skipped(source, to);
+                return;
+            }
+        }
+        metrics.transferred(fileCopier.copy(source, attributes, to));
+        fileSyncer.written(to);
+        if (copyManifest != null) {
+            copyManifest.record(relativePath, attributes);
+        }
+    }
+
+    private void skipped(final Path source, final Path to) throws IOException {
+        if (checksums != null) {
+            checksums.retain(to, source);
+        }
+        metrics.skipped();
+    }
+
     @VisibleForTesting
     public File getFile() {
         return file;
@@ -123,4 +737,220 @@ public final class CopyMojo extends AbstractMojo {
         requireNonNull(into, "into");
         this.into = into;
     }
+
+    @VisibleForTesting
+    public int getThreads() {
+        return threads;
+    }
+
+    @VisibleForTesting
+    public void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    @VisibleForTesting
+    public List<String> getIncludes() {
+        return includes;
+    }
+
+    @VisibleForTesting
+    public void setIncludes(final List<String> includes) {
+        requireNonNull(includes, "includes");
+        this.includes = includes;
+    }
+
+    @VisibleForTesting
+    public List<String> getExcludes() {
+        return excludes;
+    }
+
+    @VisibleForTesting
+    public void setExcludes(final List<String> excludes) {
+        requireNonNull(excludes, "excludes");
+        this.excludes = excludes;
+    }
+
+    @VisibleForTesting
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    @VisibleForTesting
+    public void setIncremental(final boolean incremental) {
+        this.incremental = incremental;
+    }
+
+    @VisibleForTesting
+    public String getDigestAlgorithm() {
+        return digestAlgorithm;
+    }
+
+    @VisibleForTesting
+    public void setDigestAlgorithm(final String digestAlgorithm) {
+        this.digestAlgorithm = digestAlgorithm;
+    }
+
+    @VisibleForTesting
+    public File getManifest() {
+        return manifest;
+    }
+
+    @VisibleForTesting
+    public void setManifest(final File manifest) {
+        this.manifest = manifest;
+    }
+
+    @VisibleForTesting
+    public String getLinkMode() {
+        return linkMode;
+    }
+
+    @VisibleForTesting
+    public void setLinkMode(final String linkMode) {
+        requireNonNull(linkMode, "linkMode");
+        this.linkMode = linkMode;
+    }
+
+    @VisibleForTesting
+    public String getTransfer() {
+        return transfer;
+    }
+
+    @VisibleForTesting
+    public void setTransfer(final String transfer) {
+        requireNonNull(transfer, "transfer");
+        this.transfer = transfer;
+    }
+
+    @VisibleForTesting
+    public long getChunkSize() {
+        return chunkSize;
+    }
+
+    @VisibleForTesting
+    public void setChunkSize(final long chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    @VisibleForTesting
+    public File getReport() {
+        return report;
+    }
+
+    @VisibleForTesting
+    public void setReport(final File report) {
+        this.report = report;
+    }
+
+    @VisibleForTesting
+    public boolean isDedup() {
+        return dedup;
+    }
+
+    @VisibleForTesting
+    public void setDedup(final boolean dedup) {
+        this.dedup = dedup;
+    }
+
+    @VisibleForTesting
+    public String getExecutor() {
+        return executor;
+    }
+
+    @VisibleForTesting
+    public void setExecutor(final String executor) {
+        requireNonNull(executor, "executor");
+        this.executor = executor;
+    }
+
+    @VisibleForTesting
+    public int getIoBudget() {
+        return ioBudget;
+    }
+
+    @VisibleForTesting
+    public void setIoBudget(final int ioBudget) {
+        this.ioBudget = ioBudget;
+    }
+
+    @VisibleForTesting
+    public boolean isVerify() {
+        return verify;
+    }
+
+    @VisibleForTesting
+    public void setVerify(final boolean verify) {
+        this.verify = verify;
+    }
+
+    @VisibleForTesting
+    public String getDurability() {
+        return durability;
+    }
+
+    @VisibleForTesting
+    public void setDurability(final String durability) {
+        requireNonNull(durability, "durability");
+        this.durability = durability;
+    }
+
+    @VisibleForTesting
+    public File getCache() {
+        return cache;
+    }
+
+    @VisibleForTesting
+    public void setCache(final File cache) {
+        this.cache = cache;
+    }
+
+    @VisibleForTesting
+    public long getCacheSize() {
+        return cacheSize;
+    }
+
+    @VisibleForTesting
+    public void setCacheSize(final long cacheSize) {
+        this.cacheSize = cacheSize;
+    }
+
+    @VisibleForTesting
+    public String getArchive() {
+        return archive;
+    }
+
+    @VisibleForTesting
+    public void setArchive(final String archive) {
+        this.archive = archive;
+    }
+
+    @VisibleForTesting
+    public boolean isExtract() {
+        return extract;
+    }
+
+    @VisibleForTesting
+    public void setExtract(final boolean extract) {
+        this.extract = extract;
+    }
+
+    @VisibleForTesting
+    public boolean isMirror() {
+        return mirror;
+    }
+
+    @VisibleForTesting
+    public void setMirror(final boolean mirror) {
+        this.mirror = mirror;
+    }
+
+    @VisibleForTesting
+    public File getJournal() {
+        return journal;
+    }
+
+    @VisibleForTesting
+    public void setJournal(final File journal) {
+        this.journal = journal;
+    }
 }
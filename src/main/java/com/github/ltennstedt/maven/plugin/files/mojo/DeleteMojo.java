@@ -16,20 +16,31 @@
 
 package com.github.ltennstedt.maven.plugin.files.mojo;
 
+import com.github.ltennstedt.maven.plugin.files.io.ExecutorMode;
+import com.github.ltennstedt.maven.plugin.files.io.FailedEntriesException;
+import com.github.ltennstedt.maven.plugin.files.io.IoScheduler;
+import com.github.ltennstedt.maven.plugin.files.io.IoSchedulers;
+import com.github.ltennstedt.maven.plugin.files.io.OperationMetrics;
+import com.github.ltennstedt.maven.plugin.files.io.PathFilter;
+import com.github.ltennstedt.maven.plugin.files.io.TrashCollector;
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
-import java.nio.file.Files;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Path;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 
 /**
  * Mojo for deleting files and directories
@@ -46,6 +57,88 @@ public final class DeleteMojo extends AbstractMojo {
     @Parameter(required = true)
     private File file;
 
+    /**
+     * Number of threads deleting sibling subtrees concurrently
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "1")
+    private int threads = 1;
+
+    /**
+     * Threads on which the entries are processed: platform (a fixed pool of threads) or virtual (a virtual thread per
+     * entry on Java 21 or later, at most threads at a time, otherwise platform); with virtual, threads may be much
+     * higher, e.g. 256, to hide the latency of network file systems
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "platform")
+    private String executor = "platform";
+
+    /**
+     * Maximum number of entries which all executions of the plugin in the session process concurrently on one file
+     * store, e.g. 16 to keep the modules of a parallel build with -T from thrashing a shared disk; the modules with
+     * waiting entries take turns; the first execution using a file store fixes its budget and a different budget of a
+     * later execution is ignored with a warning; 0 disables the budget
+     *
+     * @since 0.0.1
+     */
+    @Parameter(property = "files.ioBudget", defaultValue = "0")
+    private int ioBudget;
+
+    /**
+     * Current session whose executions share the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
+     * Current project whose entries wait in a queue of their own within the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /**
+     * Renames the file or directory to a hidden trash sibling and deletes it in the background; the Maven JVM waits
+     * up to ten seconds for pending deletions before it exits and leaves the rest to the next asynchronous deletion in
+     * the same directory; with includes or excludes the deletion is synchronous since only selected entries are
+     * deleted
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "false")
+    private boolean async;
+
+    /**
+     * Ant-style patterns of the entries of a directory which are deleted; everything if empty
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> includes = new ArrayList<>();
+
+    /**
+     * Ant-style patterns of the entries of a directory which are kept; directories matched by a pattern ending with
+     * /** are not walked at all
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> excludes = new ArrayList<>();
+
+    /**
+     * JSON file, e.g. ${project.build.directory}/files-maven-plugin/delete.json, to which counters and timings of the
+     * execution are written
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File report;
+
     /**
      * {@inheritDoc}
      *
@@ -54,19 +147,37 @@ public final class DeleteMojo extends AbstractMojo {
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         getLog().info("Deleting " + file.getAbsolutePath());
-        try (var walk = Files.walk(Path.of(file.getAbsolutePath()))) {
-            walk.sorted(Comparator.reverseOrder()).forEach(w -> {
-                try {
-                    Files.delete(w);
-                } catch (final IOException exception) {
-                    throw new UncheckedIOException(exception);
-                }
-            });
+        final PathFilter pathFilter;
+        try {
+            pathFilter = new PathFilter(includes, excludes);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        final var executorMode = newExecutorMode();
+        final var path = Path.of(file.getAbsolutePath());
+        final var metrics = new OperationMetrics("delete");
+        metrics.start();
+        try {
+            if (async && !pathFilter.isEmpty()) {
+                getLog().warn("Deleting synchronously since async does not support includes or excludes");
+            }
+            if (!async || !pathFilter.isEmpty() || !deleteInBackground(path)) {
+                final var deleter = new TreeDeleter(threads, executorMode, pathFilter, metrics);
+                deleter.setScheduler(newIoScheduler(path));
+                deleter.delete(path);
+            }
+            metrics.finish();
+            if (report != null) {
+                metrics.writeReport(Path.of(report.getAbsolutePath()), path, null);
+            }
+        } catch (final FailedEntriesException exception) {
+            exception.getFailures()
+                    .forEach((entry, cause) -> getLog().error("Deleting " + entry + " failed: " + cause));
+            throw failed(exception);
         } catch (final IOException | UncheckedIOException exception) {
-            final var message = "Deleting failed";
-            getLog().error(message);
-            throw new MojoExecutionException(message, exception);
+            throw failed(exception);
         }
+        getLog().info("Deleted " + metrics.summary());
         getLog().info("Deletion successful");
     }
 
@@ -80,6 +191,53 @@ public final class DeleteMojo extends AbstractMojo {
         return MoreObjects.toStringHelper(this).add("file", file).toString();
     }
 
+    private boolean deleteInBackground(final Path path) throws IOException {
+        final Path trash;
+        try {
+            trash = TrashCollector.moveToTrash(path);
+        } catch (final AtomicMoveNotSupportedException exception) {
+            getLog().debug("Renaming " + path + " is not supported, deleting synchronously");
+            return false;
+        }
+        final var log = getLog();
+        TrashCollector.reap(trash.getParent(), threads,
+                (entry, cause) -> log.warn("Deleting " + entry + " in the background failed: " + cause));
+        getLog().debug("Deleting " + trash + " in the background");
+        return true;
+    }
+
+    private IoScheduler newIoScheduler(final Path path) throws IOException {
+        if (ioBudget < 1) {
+            return null;
+        }
+        final var scheduler = IoSchedulers.of(session == null ? null : session.getRequest()).get(path, ioBudget,
+                project == null ? "" : project.getId());
+        if (scheduler.getPermits() != ioBudget) {
+            getLog().warn("Using the I/O budget of " + scheduler.getPermits() + " set by an earlier execution for "
+                    + path);
+        }
+        return scheduler;
+    }
+
+    private ExecutorMode newExecutorMode() throws MojoFailureException {
+        final ExecutorMode mode;
+        try {
+            mode = ExecutorMode.of(executor);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        if (mode == ExecutorMode.VIRTUAL && !ExecutorMode.isVirtualThreadsSupported()) {
+            getLog().warn("Virtual threads require Java 21 or later, using platform threads");
+        }
+        return mode;
+    }
+
+    private MojoExecutionException failed(final Exception exception) {
+        final var message = "Deleting failed";
+        getLog().error(message);
+        return new MojoExecutionException(message, exception);
+    }
+
     @VisibleForTesting
     File getFile() {
         return file;
@@ -90,4 +248,77 @@ public final class DeleteMojo extends AbstractMojo {
         assert file != null;
         this.file = file;
     }
+
+    @VisibleForTesting
+    int getThreads() {
+        return threads;
+    }
+
+    @VisibleForTesting
+    void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    @VisibleForTesting
+    boolean isAsync() {
+        return async;
+    }
+
+    @VisibleForTesting
+    void setAsync(final boolean async) {
+        this.async = async;
+    }
+
+    @VisibleForTesting
+    List<String> getIncludes() {
+        return includes;
+    }
+
+    @VisibleForTesting
+    void setIncludes(final List<String> includes) {
+        assert includes != null;
+        this.includes = includes;
+    }
+
+    @VisibleForTesting
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    @VisibleForTesting
+    void setExcludes(final List<String> excludes) {
+        assert excludes != null;
+        this.excludes = excludes;
+    }
+
+    @VisibleForTesting
+    File getReport() {
+        return report;
+    }
+
+    @VisibleForTesting
+    void setReport(final File report) {
+        this.report = report;
+    }
+
+    @VisibleForTesting
+    String getExecutor() {
+        return executor;
+    }
+
+    @VisibleForTesting
+    void setExecutor(final String executor) {
+        assert executor != null;
+        this.executor = executor;
+    }
+
+    @VisibleForTesting
+    int getIoBudget() {
+        return ioBudget;
+    }
+
+    @VisibleForTesting
+    void setIoBudget(final int ioBudget) {
+        this.ioBudget = ioBudget;
+    }
 }
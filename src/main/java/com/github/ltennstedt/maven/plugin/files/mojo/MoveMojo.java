@@ -16,21 +16,42 @@
 
 package com.github.ltennstedt.maven.plugin.files.mojo;
 
+import com.github.ltennstedt.maven.plugin.files.io.Durability;
+import com.github.ltennstedt.maven.plugin.files.io.EntryVisitor;
+import com.github.ltennstedt.maven.plugin.files.io.ExecutorMode;
+import com.github.ltennstedt.maven.plugin.files.io.FailedEntriesException;
+import com.github.ltennstedt.maven.plugin.files.io.FileSyncer;
+import com.github.ltennstedt.maven.plugin.files.io.IoScheduler;
+import com.github.ltennstedt.maven.plugin.files.io.IoSchedulers;
+import com.github.ltennstedt.maven.plugin.files.io.IoTask;
+import com.github.ltennstedt.maven.plugin.files.io.OperationJournal;
+import com.github.ltennstedt.maven.plugin.files.io.OperationMetrics;
+import com.github.ltennstedt.maven.plugin.files.io.PathFilter;
+import com.github.ltennstedt.maven.plugin.files.io.TreeWalker;
 import com.google.common.annotations.Beta;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryNotEmptyException;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
-import java.util.Comparator;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
 
 /**
  * Mojo for moving files and directories
@@ -57,6 +78,101 @@ public final class MoveMojo extends AbstractMojo {
     @Parameter(required = true)
     private File into;
 
+    /**
+     * Number of threads moving the files of a directory concurrently if it cannot be renamed as a whole
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "1")
+    private int threads = 1;
+
+    /**
+     * Guarantee that the moved files have reached the disk when the move succeeds: none (no syncs), batch (all files
+     * and then their directories are synced concurrently at the end) or per-file (every file and its directory are
+     * synced right after moving, which also makes the journal safe against a crash of the machine); for a tree
+     * renamed as a whole only the directories containing source and target are synced
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "none")
+    private String durability = "none";
+
+    /**
+     * Journal file, e.g. ${project.build.directory}/files-maven-plugin/move.journal, in which the moved files of a
+     * directory are recorded in batches; a run which has been killed leaves the journal behind and the next run resumes
+     * from it; the journal is deleted when the move succeeds
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File journal;
+
+    /**
+     * Threads on which the entries are processed: platform (a fixed pool of threads) or virtual (a virtual thread per
+     * entry on Java 21 or later, at most threads at a time, otherwise platform); with virtual, threads may be much
+     * higher, e.g. 256, to hide the latency of network file systems
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "platform")
+    private String executor = "platform";
+
+    /**
+     * Maximum number of entries which all executions of the plugin in the session process concurrently on one file
+     * store, e.g. 16 to keep the modules of a parallel build with -T from thrashing a shared disk; the modules with
+     * waiting entries take turns; the first execution using a file store fixes its budget and a different budget of a
+     * later execution is ignored with a warning; 0 disables the budget
+     *
+     * @since 0.0.1
+     */
+    @Parameter(property = "files.ioBudget", defaultValue = "0")
+    private int ioBudget;
+
+    /**
+     * Current session whose executions share the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${session}", readonly = true)
+    private MavenSession session;
+
+    /**
+     * Current project whose entries wait in a queue of their own within the I/O budgets
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "${project}", readonly = true)
+    private MavenProject project;
+
+    /**
+     * Ant-style patterns of the entries of a directory which are moved; everything if empty
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> includes = new ArrayList<>();
+
+    /**
+     * Ant-style patterns of the entries of a directory which are not moved; directories matched by a pattern ending
+     * with /** are not walked at all
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> excludes = new ArrayList<>();
+
+    /**
+     * JSON file, e.g. ${project.build.directory}/files-maven-plugin/move.json, to which counters and timings of the
+     * execution are written
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private File report;
+
+    private FileSyncer fileSyncer;
+    private Consumer<Path> syncListener;
+
     /**
      * {@inheritDoc}
      *
@@ -65,41 +181,44 @@ public final class MoveMojo extends AbstractMojo {
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         getLog().info("Moving " + file.getAbsolutePath() + " into " + into.getAbsolutePath());
+        final PathFilter pathFilter;
+        try {
+            pathFilter = new PathFilter(includes, excludes);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        final var executorMode = newExecutorMode();
         final var start = Path.of(file.getAbsolutePath());
         final var target = Path.of(into.getAbsolutePath());
+        fileSyncer = newFileSyncer(target, executorMode);
+        final var metrics = new OperationMetrics("move");
+        metrics.start();
         try {
-            Files.createDirectories(target);
             if (Files.isDirectory(start)) {
-                try (var walk = Files.walk(start)) {
-                    walk.forEach(w -> {
-                        try {
-                            if (Files.isDirectory(w)) {
-                                Files.copy(w, target.resolve(start.relativize(w)), StandardCopyOption.REPLACE_EXISTING);
-                            } else {
-                                Files.move(w, target.resolve(start.relativize(w)), StandardCopyOption.REPLACE_EXISTING);
-                            }
-                        } catch (final IOException exception) {
-                            throw new UncheckedIOException(exception);
-                        }
-                    });
-                }
-                try (var walk = Files.walk(Path.of(file.getAbsolutePath()))) {
-                    walk.sorted(Comparator.reverseOrder()).forEach(w -> {
-                        try {
-                            Files.delete(w);
-                        } catch (final IOException exception) {
-                            throw new UncheckedIOException(exception);
-                        }
-                    });
+                if (!pathFilter.isEmpty() || !rename(start, target, metrics)) {
+                    moveEntriesJournaled(start, target, pathFilter, executorMode, metrics);
                 }
             } else {
-                Files.move(start, target, StandardCopyOption.REPLACE_EXISTING);
+                Files.createDirectories(target.getParent());
+                metrics.fileVisited();
+                metrics.walked();
+                final var size = Files.size(start);
+                metrics.measure(() -> moveFile(start, target, () -> {
+                }));
+                metrics.transferred(size);
+            }
+            fileSyncer.finish();
+            metrics.finish();
+            if (report != null) {
+                metrics.writeReport(Path.of(report.getAbsolutePath()), start, target);
             }
+        } catch (final FailedEntriesException exception) {
+            exception.getFailures().forEach((entry, cause) -> getLog().error("Moving " + entry + " failed: " + cause));
+            throw failed(exception);
         } catch (final IOException | UncheckedIOException exception) {
-            final var message = "Moving failed";
-            getLog().error(message);
-            throw new MojoExecutionException(message, exception);
+            throw failed(exception);
         }
+        getLog().info("Moved " + metrics.summary());
         getLog().info("Moving successful");
     }
 
@@ -113,6 +232,205 @@ public final class MoveMojo extends AbstractMojo {
         return MoreObjects.toStringHelper(this).add("file", file).add("into", into).toString();
     }
 
+    /**
+     * Moves the whole tree with a single rename if the target does not exist or is an empty directory and both are
+     * located on the same file store
+     *
+     * @return true if the tree has been renamed, false if it has to be moved entry by entry
+     */
+    private boolean rename(final Path start, final Path target, final OperationMetrics metrics) throws IOException {
+        if (Files.exists(target) && !isEmptyDirectory(target)) {
+            return false;
+        }
+        final var parent = target.getParent();
+        Files.createDirectories(parent);
+        if (!Files.getFileStore(start).equals(Files.getFileStore(parent))) {
+            return false;
+        }
+        Files.deleteIfExists(target);
+        try {
+            metrics.measure(() -> Files.move(start, target, StandardCopyOption.ATOMIC_MOVE));
+        } catch (final AtomicMoveNotSupportedException exception) {
+            getLog().debug("Renaming " + start + " is not supported, moving entry by entry");
+            return false;
+        }
+        metrics.directoryVisited();
+        metrics.walked();
+        fileSyncer.renamed(start, target);
+        getLog().debug("Renamed " + start + " to " + target);
+        return true;
+    }
+
+    /**
+     * Moves the entries while recording the moved files in the journal, which is deleted on success and kept for
+     * resuming otherwise
+     */
+    private void moveEntriesJournaled(final Path start, final Path target, final PathFilter pathFilter,
+            final ExecutorMode executorMode, final OperationMetrics metrics) throws IOException {
+        if (journal == null) {
+            moveEntries(start, target, pathFilter, executorMode, metrics, null);
+            return;
+        }
+        final var operationJournal = OperationJournal.open(Path.of(journal.getAbsolutePath()), "move", start, target,
+                OperationJournal.DEFAULT_BATCH_SIZE);
+        var moved = false;
+        try {
+            moveEntries(start, target, pathFilter, executorMode, metrics, operationJournal);
+            fileSyncer.finish();
+            moved = true;
+        } finally {
+            if (moved) {
+                operationJournal.delete();
+            } else {
+                operationJournal.close();
+            }
+        }
+    }
+
+    /**
+     * Moves the selected files on the workers of the {@link TreeWalker} and deletes every directory once its entries
+     * are gone; with patterns only selected directories which are empty afterwards are deleted
+     */
+    private void moveEntries(final Path start, final Path target, final PathFilter pathFilter,
+            final ExecutorMode executorMode, final OperationMetrics metrics, final OperationJournal operationJournal)
+            throws IOException {
+        Files.createDirectories(target);
+        final var walker = new TreeWalker(threads, executorMode, pathFilter, metrics);
+        walker.setScheduler(newIoScheduler(target));
+        walker.walk(start, new EntryVisitor() {
+            @Override
+            public void enterDirectory(final Path dir, final Path relativePath) throws IOException {
+                if (!pathFilter.hasIncludes()) {
+                    Files.createDirectories(target.resolve(relativePath));
+                }
+            }
+
+            @Override
+            public void visitFile(final Path entry, final BasicFileAttributes attributes, final Path relativePath)
+                    throws IOException {
+                final var to = target.resolve(relativePath);
+                if (operationJournal == null) {
+                    if (pathFilter.hasIncludes()) {
+                        Files.createDirectories(to.getParent());
+                    }
+                    moveFile(entry, to, () -> {
+                    });
+                } else {
+                    final var name = relativePath.toString().replace(entry.getFileSystem().getSeparator(), "/");
+                    if (operationJournal.isCompleted(name, attributes) && isCopy(to, attributes)) {
+                        Files.delete(entry);
+                        metrics.skipped();
+                        return;
+                    }
+                    if (pathFilter.hasIncludes()) {
+                        Files.createDirectories(to.getParent());
+                    }
+                    moveFile(entry, to, () -> operationJournal.record(name, attributes));
+                }
+                metrics.transferred(attributes.size());
+            }
+
+            @Override
+            public void leaveDirectory(final Path dir, final Path relativePath) throws IOException {
+                if (pathFilter.isEmpty()) {
+                    Files.delete(dir);
+                } else if (pathFilter.isSelected(relativePath)) {
+                    try {
+                        Files.delete(dir);
+                    } catch (final DirectoryNotEmptyException exception) {
+                        return;
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Renames the file or, across file stores, copies it, syncs the copy according to the durability, records it and
+     * only then deletes the source, so a killed run or a power loss cannot lose both; a run killed before the deletion
+     * leaves a recorded copy behind whose source the next run only deletes
+     */
+    private void moveFile(final Path entry, final Path to, final IoTask record) throws IOException {
+        try {
+            Files.move(entry, to, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            fileSyncer.written(to);
+        } catch (final AtomicMoveNotSupportedException exception) {
+            Files.copy(entry, to, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES,
+                    LinkOption.NOFOLLOW_LINKS);
+            fileSyncer.copied(to);
+            record.run();
+            Files.delete(entry);
+        }
+    }
+
+    /**
+     * Returns true if the target has the size and last modified time of the source, i.e. it is the copy a killed run
+     * has recorded
+     */
+    private static boolean isCopy(final Path to, final BasicFileAttributes attributes) throws IOException {
+        final BasicFileAttributes copyAttributes;
+        try {
+            copyAttributes = Files.readAttributes(to, BasicFileAttributes.class);
+        } catch (final NoSuchFileException exception) {
+            return false;
+        }
+        return copyAttributes.size() == attributes.size()
+                && copyAttributes.lastModifiedTime().toMillis() == attributes.lastModifiedTime().toMillis();
+    }
+
+    private IoScheduler newIoScheduler(final Path path) throws IOException {
+        if (ioBudget < 1) {
+            return null;
+        }
+        final var scheduler = IoSchedulers.of(session == null ? null : session.getRequest()).get(path, ioBudget,
+                project == null ? "" : project.getId());
+        if (scheduler.getPermits() != ioBudget) {
+            getLog().warn("Using the I/O budget of " + scheduler.getPermits() + " set by an earlier execution for "
+                    + path);
+        }
+        return scheduler;
+    }
+
+    private FileSyncer newFileSyncer(final Path target, final ExecutorMode executorMode) throws MojoFailureException {
+        try {
+            final var syncer = new FileSyncer(Durability.of(durability), target, threads, executorMode);
+            if (syncListener != null) {
+                syncer.setListener(syncListener);
+            }
+            return syncer;
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+    }
+
+    private ExecutorMode newExecutorMode() throws MojoFailureException {
+        final ExecutorMode mode;
+        try {
+            mode = ExecutorMode.of(executor);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        if (mode == ExecutorMode.VIRTUAL && !ExecutorMode.isVirtualThreadsSupported()) {
+            getLog().warn("Virtual threads require Java 21 or later, using platform threads");
+        }
+        return mode;
+    }
+
+    private MojoExecutionException failed(final Exception exception) {
+        final var message = "Moving failed";
+        getLog().error(message);
+        return new MojoExecutionException(message, exception);
+    }
+
+    private static boolean isEmptyDirectory(final Path path) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return false;
+        }
+        try (var entries = Files.newDirectoryStream(path)) {
+            return !entries.iterator().hasNext();
+        }
+    }
+
     @VisibleForTesting
     File getFile() {
         return file;
@@ -134,4 +452,93 @@ public final class MoveMojo extends AbstractMojo {
         assert into != null;
         this.into = into;
     }
+
+    @VisibleForTesting
+    int getThreads() {
+        return threads;
+    }
+
+    @VisibleForTesting
+    void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    @VisibleForTesting
+    List<String> getIncludes() {
+        return includes;
+    }
+
+    @VisibleForTesting
+    void setIncludes(final List<String> includes) {
+        assert includes != null;
+        this.includes = includes;
+    }
+
+    @VisibleForTesting
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    @VisibleForTesting
+    void setExcludes(final List<String> excludes) {
+        assert excludes != null;
+        this.excludes = excludes;
+    }
+
+    @VisibleForTesting
+    File getReport() {
+        return report;
+    }
+
+    @VisibleForTesting
+    void setReport(final File report) {
+        this.report = report;
+    }
+
+    @VisibleForTesting
+    String getDurability() {
+        return durability;
+    }
+
+    @VisibleForTesting
+    void setDurability(final String durability) {
+        assert durability != null;
+        this.durability = durability;
+    }
+
+    @VisibleForTesting
+    String getExecutor() {
+        return executor;
+    }
+
+    @VisibleForTesting
+    void setExecutor(final String executor) {
+        assert executor != null;
+        this.executor = executor;
+    }
+
+    @VisibleForTesting
+    int getIoBudget() {
+        return ioBudget;
+    }
+
+    @VisibleForTesting
+    void setIoBudget(final int ioBudget) {
+        this.ioBudget = ioBudget;
+    }
+
+    @VisibleForTesting
+    File getJournal() {
+        return journal;
+    }
+
+    @VisibleForTesting
+    void setJournal(final File journal) {
+        this.journal = journal;
+    }
+
+    @VisibleForTesting
+    void setSyncListener(final Consumer<Path> syncListener) {
+        this.syncListener = syncListener;
+    }
 }
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoFailureException;
+
+/**
+ * Copy, move or delete operation of the {@link BatchMojo}
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+public final class Operation {
+    /**
+     * Goal which is run: copy, move or delete
+     *
+     * @since 0.0.1
+     */
+    private String goal;
+
+    /**
+     * Source file or directory
+     *
+     * @since 0.0.1
+     */
+    private File file;
+
+    /**
+     * Target directory of copy and move
+     *
+     * @since 0.0.1
+     */
+    private File into;
+
+    /**
+     * Ant-style patterns of the entries of a directory which are processed; everything if empty
+     *
+     * @since 0.0.1
+     */
+    private List<String> includes = new ArrayList<>();
+
+    /**
+     * Ant-style patterns of the entries of a directory which are not processed
+     *
+     * @since 0.0.1
+     */
+    private List<String> excludes = new ArrayList<>();
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("goal", goal).add("file", file).add("into", into).toString();
+    }
+
+    /**
+     * Returns the configured mojo running the operation on its own
+     */
+    AbstractMojo newMojo() throws MojoFailureException {
+        if (goal == null || file == null) {
+            throw new MojoFailureException("goal and file expected but actual " + this);
+        }
+        switch (goal.trim().toLowerCase(Locale.ROOT)) {
+            case "copy":
+                final var copyMojo = new CopyMojo();
+                copyMojo.setFile(file);
+                copyMojo.setInto(requireInto());
+                copyMojo.setIncludes(includes);
+                copyMojo.setExcludes(excludes);
+                return copyMojo;
+            case "move":
+                final var moveMojo = new MoveMojo();
+                moveMojo.setFile(file);
+                moveMojo.setInto(requireInto());
+                moveMojo.setIncludes(includes);
+                moveMojo.setExcludes(excludes);
+                return moveMojo;
+            case "delete":
+                final var deleteMojo = new DeleteMojo();
+                deleteMojo.setFile(file);
+                deleteMojo.setIncludes(includes);
+                deleteMojo.setExcludes(excludes);
+                return deleteMojo;
+            default:
+                throw new MojoFailureException("Unknown goal " + goal + " of " + this);
+        }
+    }
+
+    /**
+     * Returns true if one of the operations writes a path which the other one reads or writes, i.e. if both paths are
+     * equal or one contains the other
+     */
+    boolean overlaps(final Operation other) {
+        final var source = path(file);
+        final var otherSource = path(other.file);
+        final var target = path(into);
+        final var otherTarget = path(other.into);
+        return isNested(target, otherTarget) || isNested(target, otherSource) || isNested(source, otherTarget)
+                || (writesSource() || other.writesSource()) && isNested(source, otherSource);
+    }
+
+    private boolean writesSource() {
+        return !"copy".equalsIgnoreCase(goal.trim());
+    }
+
+    private File requireInto() throws MojoFailureException {
+        if (into == null) {
+            throw new MojoFailureException("into expected but actual " + this);
+        }
+        return into;
+    }
+
+    private static Path path(final File file) {
+        return file == null ? null : Path.of(file.getAbsolutePath()).normalize();
+    }
+
+    private static boolean isNested(final Path path, final Path other) {
+        return path != null && other != null && (path.startsWith(other) || other.startsWith(path));
+    }
+
+    @VisibleForTesting
+    String getGoal() {
+        return goal;
+    }
+
+    @VisibleForTesting
+    void setGoal(final String goal) {
+        assert goal != null;
+        this.goal = goal;
+    }
+
+    @VisibleForTesting
+    File getFile() {
+        return file;
+    }
+
+    @VisibleForTesting
+    void setFile(final File file) {
+        assert file != null;
+        this.file = file;
+    }
+
+    @VisibleForTesting
+    File getInto() {
+        return into;
+    }
+
+    @VisibleForTesting
+    void setInto(final File into) {
+        assert into != null;
+        this.into = into;
+    }
+
+    @VisibleForTesting
+    List<String> getIncludes() {
+        return includes;
+    }
+
+    @VisibleForTesting
+    void setIncludes(final List<String> includes) {
+        assert includes != null;
+        this.includes = includes;
+    }
+
+    @VisibleForTesting
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    @VisibleForTesting
+    void setExcludes(final List<String> excludes) {
+        assert excludes != null;
+        this.excludes = excludes;
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import com.github.ltennstedt.maven.plugin.files.io.DirectoryWatcher;
+import com.github.ltennstedt.maven.plugin.files.io.FileCopier;
+import com.github.ltennstedt.maven.plugin.files.io.PathFilter;
+import com.github.ltennstedt.maven.plugin.files.io.TreeDeleter;
+import com.github.ltennstedt.maven.plugin.files.io.UpToDateCheck;
+import com.google.common.annotations.Beta;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.MoreObjects;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+
+/**
+ * Mojo for keeping a copy of a directory in sync while it changes
+ *
+ * <p>
+ * The goal first mirrors the directory incrementally, deleting entries of the target without a source, and then
+ * watches it until Maven is stopped; if events have been lost the directory is mirrored again. Every debounced batch
+ * of changes is applied to the target: created or modified files are copied unless their target is up to date,
+ * created directories are copied with their contents and deleted entries are deleted, without walking the tree again.
+ * Modifications of directories are ignored since they only reflect changes of their entries, which are reported on
+ * their own. A file copied with its new directory is not copied again for its own event of the same batch.
+ * </p>
+ *
+ * @author Lars Tennstedt
+ * @since 0.0.1
+ */
+@Beta
+@Mojo(name = "watch")
+public final class WatchMojo extends AbstractMojo {
+    /**
+     * Source directory
+     *
+     * @since 0.0.1
+     */
+    @Parameter(required = true)
+    private File file;
+
+    /**
+     * Target directory
+     *
+     * @since 0.0.1
+     */
+    @Parameter(required = true)
+    private File into;
+
+    /**
+     * Number of threads of the initial copy
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "1")
+    private int threads = 1;
+
+    /**
+     * Ant-style patterns of the entries which are synchronized; everything if empty
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> includes = new ArrayList<>();
+
+    /**
+     * Ant-style patterns of the entries which are neither synchronized nor deleted in the target; directories matched
+     * by a pattern ending with /** are not watched at all
+     *
+     * @since 0.0.1
+     */
+    @Parameter
+    private List<String> excludes = new ArrayList<>();
+
+    /**
+     * Milliseconds without further events after which a batch of changes is applied
+     *
+     * @since 0.0.1
+     */
+    @Parameter(defaultValue = "200")
+    private long debounce = 200L;
+
+    private PathFilter pathFilter;
+    private FileCopier fileCopier;
+    private UpToDateCheck upToDateCheck;
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        getLog().info("Watching " + file.getAbsolutePath() + " to sync into " + into.getAbsolutePath());
+        try {
+            pathFilter = new PathFilter(includes, excludes);
+        } catch (final IllegalArgumentException exception) {
+            throw new MojoFailureException(exception.getMessage(), exception);
+        }
+        fileCopier = new FileCopier();
+        fileCopier.setPreserveLastModified(true);
+        upToDateCheck = new UpToDateCheck(null);
+        final var start = Path.of(file.getAbsolutePath());
+        final var target = Path.of(into.getAbsolutePath());
+        try (var watcher = new DirectoryWatcher(start, pathFilter)) {
+            copyAll();
+            while (!Thread.currentThread().isInterrupted()) {
+                final var changes = watcher.take(debounce);
+                final var begin = System.nanoTime();
+                if (changes.containsKey(Path.of(""))) {
+                    getLog().warn("Events have been lost, copying " + start + " again");
+                    copyAll();
+                    continue;
+                }
+                final Set<Path> copied = new HashSet<>();
+                for (final var change : changes.entrySet()) {
+                    if (!copied.contains(change.getKey())) {
+                        apply(start, target, change.getKey(), change.getValue(), copied);
+                    }
+                }
+                getLog().info("Synced " + changes.size() + " changes in "
+                        + (System.nanoTime() - begin) / 1_000_000L + " ms");
+            }
+        } catch (final InterruptedIOException exception) {
+            getLog().info("Watching stopped");
+        } catch (final IOException | UncheckedIOException exception) {
+            final var message = "Watching failed";
+            getLog().error(message);
+            throw new MojoExecutionException(message, exception);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @since 0.0.1
+     */
+    @Override
+    public String toString() {
+        return MoreObjects.toStringHelper(this).add("file", file).add("into", into).toString();
+    }
+
+    /**
+     * Mirrors the whole directory incrementally like the copy goal, so entries whose deletion has not been observed
+     * are deleted in the target as well
+     */
+    @VisibleForTesting
+    void copyAll() throws IOException {
+        final var copyMojo = new CopyMojo();
+        copyMojo.setLog(getLog());
+        copyMojo.setFile(file);
+        copyMojo.setInto(into);
+        copyMojo.setThreads(threads);
+        copyMojo.setIncludes(includes);
+        copyMojo.setExcludes(excludes);
+        copyMojo.setIncremental(true);
+        copyMojo.setMirror(true);
+        try {
+            copyMojo.execute();
+        } catch (final MojoExecutionException | MojoFailureException exception) {
+            throw new IOException(exception.getMessage(), exception);
+        }
+    }
+
+    /**
+     * Brings the target of the changed entry in line with its source; only a created directory is copied, and the
+     * relative paths of the files copied along with it are added to the copied paths
+     */
+    private void apply(final Path start, final Path target, final Path relativePath, final WatchEvent.Kind<?> kind,
+            final Set<Path> copied) throws IOException {
+        final var source = start.resolve(relativePath);
+        final var to = target.resolve(relativePath);
+        final BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(source, BasicFileAttributes.class);
+        } catch (final NoSuchFileException exception) {
+            delete(target, to, relativePath);
+            return;
+        }
+        if (attributes.isDirectory()) {
+            if (kind == StandardWatchEventKinds.ENTRY_CREATE && !pathFilter.isPruned(relativePath)) {
+                copyDirectory(start, target, source, copied);
+            }
+        } else if (attributes.isRegularFile() && pathFilter.isSelected(relativePath)) {
+            copyFile(source, attributes, to);
+        }
+    }
+
+    private void copyDirectory(final Path start, final Path target, final Path dir, final Set<Path> copied)
+            throws IOException {
+        if (!pathFilter.hasIncludes()) {
+            Files.createDirectories(target.resolve(start.relativize(dir)));
+        }
+        try (var entries = Files.newDirectoryStream(dir)) {
+            for (final var entry : entries) {
+                final var relativePath = start.relativize(entry);
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (final NoSuchFileException exception) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    if (!pathFilter.isPruned(relativePath)) {
+                        copyDirectory(start, target, entry, copied);
+                    }
+                } else if (attributes.isRegularFile() && pathFilter.isSelected(relativePath)) {
+                    copyFile(entry, attributes, target.resolve(relativePath));
+                    copied.add(relativePath);
+                }
+            }
+        }
+    }
+
+    private void copyFile(final Path source, final BasicFileAttributes attributes, final Path to) throws IOException {
+        Files.createDirectories(to.getParent());
+        try {
+            if (upToDateCheck.isUpToDate(source, attributes, to)) {
+                getLog().debug("Skipped " + source + " which is up to date");
+                return;
+            }
+            fileCopier.copy(source, attributes, to);
+        } catch (final NoSuchFileException exception) {
+            getLog().debug("Skipped " + source + " which has been deleted meanwhile");
+            return;
+        }
+        getLog().debug("Copied " + source);
+    }
+
+    private void delete(final Path target, final Path to, final Path relativePath) throws IOException {
+        if (!Files.exists(to, LinkOption.NOFOLLOW_LINKS)) {
+            return;
+        }
+        if (!Files.isDirectory(to, LinkOption.NOFOLLOW_LINKS)) {
+            if (pathFilter.isSelected(relativePath)) {
+                Files.deleteIfExists(to);
+            }
+        } else if (!pathFilter.isPruned(relativePath)) {
+            TreeDeleter.deleteSelected(target, to, pathFilter);
+        }
+        getLog().debug("Deleted " + to);
+    }
+
+    @VisibleForTesting
+    File getFile() {
+        return file;
+    }
+
+    @VisibleForTesting
+    void setFile(final File file) {
+        assert file != null;
+        this.file = file;
+    }
+
+    @VisibleForTesting
+    File getInto() {
+        return into;
+    }
+
+    @VisibleForTesting
+    void setInto(final File into) {
+        assert into != null;
+        this.into = into;
+    }
+
+    @VisibleForTesting
+    int getThreads() {
+        return threads;
+    }
+
+    @VisibleForTesting
+    void setThreads(final int threads) {
+        this.threads = threads;
+    }
+
+    @VisibleForTesting
+    List<String> getIncludes() {
+        return includes;
+    }
+
+    @VisibleForTesting
+    void setIncludes(final List<String> includes) {
+        assert includes != null;
+        this.includes = includes;
+    }
+
+    @VisibleForTesting
+    List<String> getExcludes() {
+        return excludes;
+    }
+
+    @VisibleForTesting
+    void setExcludes(final List<String> excludes) {
+        assert excludes != null;
+        this.excludes = excludes;
+    }
+
+    @VisibleForTesting
+    long getDebounce() {
+        return debounce;
+    }
+
+    @VisibleForTesting
+    void setDebounce(final long debounce) {
+        this.debounce = debounce;
+    }
+}
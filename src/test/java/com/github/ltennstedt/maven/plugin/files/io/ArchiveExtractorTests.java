@@ -0,0 +1,185 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class ArchiveExtractorTests {
+    private static final Path dir = Path.of("testarea/extract").toAbsolutePath();
+    private static final Path target = dir.resolve("target");
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        Files.createDirectories(dir.resolve("source/sub"));
+        Files.writeString(dir.resolve("source/a.txt"), "a", StandardCharsets.UTF_8);
+        Files.writeString(dir.resolve("source/sub/b.txt"), "b", StandardCharsets.UTF_8);
+        Files.write(dir.resolve("source/sub/large.bin"), new byte[200 * 1024]);
+    }
+
+    @Test
+    public void extractZipShouldSucceed() throws IOException {
+        // given
+        final var archive = archive("test.zip", ArchiveFormat.ZIP);
+
+        // when
+        extractor(new OperationMetrics("test"), false).extract(archive, ArchiveFormat.ZIP, target);
+
+        // then
+        assertExtracted();
+    }
+
+    @Test
+    public void extractTarGzShouldSucceed() throws IOException {
+        // given
+        final var archive = archive("test.tar.gz", ArchiveFormat.TAR_GZ);
+
+        // when
+        extractor(new OperationMetrics("test"), false).extract(archive, ArchiveFormat.TAR_GZ, target);
+
+        // then
+        assertExtracted();
+    }
+
+    @Test
+    public void extractIncrementalShouldSkipUnchangedFiles() throws IOException {
+        // given
+        final var archive = archive("test.tar", ArchiveFormat.TAR);
+        extractor(new OperationMetrics("test"), true).extract(archive, ArchiveFormat.TAR, target);
+        final var metrics = new OperationMetrics("test");
+
+        // when
+        extractor(metrics, true).extract(archive, ArchiveFormat.TAR, target);
+
+        // then
+        assertThat(metrics.summary()).contains("3 skipped");
+        assertExtracted();
+    }
+
+    @Test
+    public void extractShouldRejectEntryOutsideOfTarget() throws IOException {
+        // given
+        final var archive = dir.resolve("evil.zip");
+        try (var zip = new ZipOutputStream(Files.newOutputStream(archive))) {
+            zip.putNextEntry(new ZipEntry("../evil.txt"));
+            zip.write("evil".getBytes(StandardCharsets.UTF_8));
+            zip.closeEntry();
+        }
+
+        // when
+        final var thrown = assertThatThrownBy(
+                () -> extractor(new OperationMetrics("test"), false).extract(archive, ArchiveFormat.ZIP, target));
+
+        // then
+        thrown.isInstanceOf(IOException.class).hasMessageContaining("outside");
+        assertThat(dir.resolve("evil.txt")).doesNotExist();
+    }
+
+    @Test
+    public void extractShouldIgnoreEntryOfTarget() throws IOException {
+        // given
+        final var archive = dir.resolve("dot.tar");
+        try (var writer = new ArchiveWriter(archive, ArchiveFormat.TAR, 1)) {
+            writer.addDirectory(dir.resolve("source"),
+                    Files.readAttributes(dir.resolve("source"), BasicFileAttributes.class), "./");
+            final var source = dir.resolve("source/a.txt");
+            writer.addFile(source, Files.readAttributes(source, BasicFileAttributes.class), "./a.txt");
+        }
+
+        // when
+        extractor(new OperationMetrics("test"), false).extract(archive, ArchiveFormat.TAR, target);
+
+        // then
+        assertThat(Files.readString(target.resolve("a.txt"), StandardCharsets.UTF_8)).isEqualTo("a");
+    }
+
+    @Test
+    public void extractShouldFilterDirectoryEntries() throws IOException {
+        // given
+        final var archive = dir.resolve("dirs.zip");
+        try (var writer = new ArchiveWriter(archive, ArchiveFormat.ZIP, 1)) {
+            final var attributes = Files.readAttributes(dir.resolve("source/sub"), BasicFileAttributes.class);
+            writer.addDirectory(dir.resolve("source/sub"), attributes, "kept");
+            writer.addDirectory(dir.resolve("source/sub"), attributes, "excluded");
+        }
+        final var extractor = new ArchiveExtractor(4, ExecutorMode.PLATFORM,
+                new PathFilter(null, List.of("excluded")), new OperationMetrics("test"));
+
+        // when
+        extractor.extract(archive, ArchiveFormat.ZIP, target);
+
+        // then
+        assertThat(target.resolve("kept")).isDirectory();
+        assertThat(target.resolve("excluded")).doesNotExist();
+    }
+
+    @Test
+    public void extractTarShouldCollectFailureOfLargeEntry() throws IOException {
+        // given
+        final var archive = archive("test.tar", ArchiveFormat.TAR);
+        Files.createDirectories(target.resolve("sub/large.bin/blocker"));
+
+        // when
+        final var thrown = assertThatThrownBy(
+                () -> extractor(new OperationMetrics("test"), false).extract(archive, ArchiveFormat.TAR, target));
+
+        // then
+        thrown.isInstanceOfSatisfying(FailedEntriesException.class,
+                exception -> assertThat(exception.getFailures()).containsKey(target.resolve("sub/large.bin")));
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    private static ArchiveExtractor extractor(final OperationMetrics metrics, final boolean incremental) {
+        final var extractor = new ArchiveExtractor(4, ExecutorMode.PLATFORM, new PathFilter(null, null), metrics);
+        extractor.setIncremental(incremental);
+        return extractor;
+    }
+
+    private static Path archive(final String name, final ArchiveFormat format) throws IOException {
+        final var archive = dir.resolve(name);
+        try (var writer = new ArchiveWriter(archive, format, 2)) {
+            for (final var file : List.of("a.txt", "sub/b.txt", "sub/large.bin")) {
+                final var source = dir.resolve("source").resolve(file);
+                writer.addFile(source, Files.readAttributes(source, BasicFileAttributes.class), file);
+            }
+        }
+        return archive;
+    }
+
+    private static void assertExtracted() throws IOException {
+        assertThat(Files.readString(target.resolve("a.txt"), StandardCharsets.UTF_8)).isEqualTo("a");
+        assertThat(Files.readString(target.resolve("sub/b.txt"), StandardCharsets.UTF_8)).isEqualTo("b");
+        assertThat(Files.size(target.resolve("sub/large.bin"))).isEqualTo(200 * 1024);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.zip.GZIPInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.commons.compress.compressors.zstandard.ZstdCompressorInputStream;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class ArchiveWriterTests {
+    private static final Path dir = Path.of("testarea/archive").toAbsolutePath();
+    private static final Path small = dir.resolve("small.txt");
+    private static final Path large = dir.resolve("large.bin");
+    private byte[] largeContent;
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        Files.createDirectories(dir);
+        Files.writeString(small, "small", StandardCharsets.UTF_8);
+        largeContent = new byte[3 * 1024 * 1024 + 17];
+        new Random(42L).nextBytes(largeContent);
+        Files.write(large, largeContent);
+    }
+
+    @Test
+    public void zipShouldContainEntries() throws IOException {
+        // given
+        final var archive = dir.resolve("test.zip");
+
+        // when
+        write(archive, ArchiveFormat.ZIP);
+
+        // then
+        try (var zip = ZipFile.builder().setPath(archive).get()) {
+            assertThat(zip.getEntry("dir/").isDirectory()).isTrue();
+            try (var in = zip.getInputStream(zip.getEntry("dir/small.txt"))) {
+                assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("small");
+            }
+            try (var in = zip.getInputStream(zip.getEntry("large.bin"))) {
+                assertThat(in.readAllBytes()).isEqualTo(largeContent);
+            }
+        }
+    }
+
+    @Test
+    public void tarGzShouldContainEntriesSpanningSeveralBlocks() throws IOException {
+        // given
+        final var archive = dir.resolve("test.tar.gz");
+
+        // when
+        write(archive, ArchiveFormat.TAR_GZ);
+
+        // then
+        try (var in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+            final var entries = readTar(in);
+            assertThat(entries).containsOnlyKeys("dir/", "dir/small.txt", "large.bin");
+            assertThat(entries.get("large.bin")).isEqualTo(largeContent);
+        }
+    }
+
+    @Test
+    public void tarZstShouldContainEntries() throws IOException {
+        // given
+        final var archive = dir.resolve("test.tar.zst");
+
+        // when
+        write(archive, ArchiveFormat.TAR_ZST);
+
+        // then
+        try (var in = new ZstdCompressorInputStream(new BufferedInputStream(Files.newInputStream(archive)))) {
+            final var entries = readTar(in);
+            assertThat(new String(entries.get("dir/small.txt"), StandardCharsets.UTF_8)).isEqualTo("small");
+            assertThat(entries.get("large.bin")).isEqualTo(largeContent);
+        }
+    }
+
+    @Test
+    public void ofShouldAcceptExtensions() {
+        // when
+        final var actual = ArchiveFormat.of("tgz");
+
+        // then
+        assertThat(actual).isEqualTo(ArchiveFormat.of("tar.gz")).isEqualTo(ArchiveFormat.TAR_GZ);
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    private static void write(final Path archive, final ArchiveFormat format) throws IOException {
+        try (var writer = new ArchiveWriter(archive, format, 4)) {
+            writer.addDirectory(dir, Files.readAttributes(dir, BasicFileAttributes.class), "dir");
+            writer.addFile(small, Files.readAttributes(small, BasicFileAttributes.class), "dir/small.txt");
+            writer.addFile(large, Files.readAttributes(large, BasicFileAttributes.class), "large.bin");
+        }
+    }
+
+    private static Map<String, byte[]> readTar(final InputStream in) throws IOException {
+        final Map<String, byte[]> entries = new HashMap<>();
+        final var tar = new TarArchiveInputStream(in);
+        for (var entry = tar.getNextEntry(); entry != null; entry = tar.getNextEntry()) {
+            entries.put(entry.getName(), tar.readAllBytes());
+        }
+        return entries;
+    }
+}
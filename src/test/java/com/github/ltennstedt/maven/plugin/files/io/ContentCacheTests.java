@@ -0,0 +1,158 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class ContentCacheTests {
+    private static final Path dir = Path.of("testarea/cache");
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        Files.createDirectories(dir);
+    }
+
+    @Test
+    public void materializeShouldLinkStoredContent() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+        final var file = Files.writeString(dir.resolve("a.txt"), "content", StandardCharsets.UTF_8);
+        final var key = cache.key(file);
+        cache.store(key, file);
+        final var target = dir.resolve("b.txt");
+
+        // when
+        final var actual = cache.materialize(key, Files.size(file), target);
+
+        // then
+        assertThat(actual).isTrue();
+        assertThat(target).hasContent("content");
+    }
+
+    @Test
+    public void storeShouldLinkFileReadOnly() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+        final var file = Files.writeString(dir.resolve("a.txt"), "content", StandardCharsets.UTF_8);
+        final var key = cache.key(file);
+
+        // when
+        final var actual = cache.store(key, file);
+
+        // then
+        assertThat(actual).isTrue();
+        assertThat(cache.materialize(key, 7L, dir.resolve("b.txt"))).isTrue();
+        assertThat(Files.isSameFile(file, dir.resolve("b.txt"))).isTrue();
+        assertThat(Files.getPosixFilePermissions(file)).doesNotContain(PosixFilePermission.OWNER_WRITE);
+    }
+
+    @Test
+    public void storeShouldRejectContentNotMatchingKey() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+        final var file = Files.writeString(dir.resolve("a.txt"), "content", StandardCharsets.UTF_8);
+        final var key = cache.key(Files.writeString(dir.resolve("other.txt"), "corrupt", StandardCharsets.UTF_8));
+
+        // when
+        final var actual = cache.store(key, file);
+
+        // then
+        assertThat(actual).isFalse();
+        assertThat(cache.materialize(key, 7L, dir.resolve("b.txt"))).isFalse();
+        assertThat(dir.resolve("b.txt")).doesNotExist();
+        assertThat(Files.getPosixFilePermissions(file)).contains(PosixFilePermission.OWNER_WRITE);
+    }
+
+    @Test
+    public void isLinkableShouldAcceptTargetOnFileStoreOfCache() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+
+        // when
+        final var actual = cache.isLinkable(dir.resolve("a.txt"));
+
+        // then
+        assertThat(actual).isTrue();
+    }
+
+    @Test
+    public void materializeShouldReturnFalseForMiss() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+        final var file = Files.writeString(dir.resolve("a.txt"), "content", StandardCharsets.UTF_8);
+
+        // when
+        final var actual = cache.materialize(cache.key(file), Files.size(file), dir.resolve("b.txt"));
+
+        // then
+        assertThat(actual).isFalse();
+        assertThat(dir.resolve("b.txt")).doesNotExist();
+    }
+
+    @Test
+    public void evictShouldDeleteLeastRecentlyUsedEntries() throws IOException {
+        // given
+        final var cache = new ContentCache(dir.resolve("store"), 10L);
+        final var old = Files.writeString(dir.resolve("old.txt"), "12345678", StandardCharsets.UTF_8);
+        final var recent = Files.writeString(dir.resolve("recent.txt"), "abcdefgh", StandardCharsets.UTF_8);
+        cache.store(cache.key(old), old);
+        cache.store(cache.key(recent), recent);
+        Files.getFileAttributeView(old, BasicFileAttributeView.class).setTimes(null, FileTime.fromMillis(0L), null);
+
+        // when
+        final var actual = cache.evict();
+
+        // then
+        assertThat(actual).isEqualTo(1);
+        assertThat(cache.materialize(cache.key(old), 8L, dir.resolve("b.txt"))).isFalse();
+        assertThat(cache.materialize(cache.key(recent), 8L, dir.resolve("b.txt"))).isTrue();
+    }
+
+    @Test
+    public void evictShouldSkipWalkUntilDue() throws IOException {
+        // given
+        final var old = Files.writeString(dir.resolve("old.txt"), "12345678", StandardCharsets.UTF_8);
+        final var cache = new ContentCache(dir.resolve("store"), ContentCache.DEFAULT_MAX_SIZE);
+        cache.store(cache.key(old), old);
+        cache.evict();
+        final var full = new ContentCache(dir.resolve("store"), 1L);
+
+        // when
+        final var actual = full.evict();
+
+        // then
+        assertThat(actual).isZero();
+        assertThat(full.materialize(full.key(old), 8L, dir.resolve("b.txt"))).isTrue();
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+}
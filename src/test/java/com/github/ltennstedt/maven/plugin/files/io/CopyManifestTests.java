@@ -0,0 +1,99 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class CopyManifestTests {
+    private static final Path source = Path.of("testarea/manifest/source").toAbsolutePath();
+    private static final Path target = Path.of("testarea/manifest/target").toAbsolutePath();
+    private static final Path file = Path.of("testarea/manifest/copy.idx").toAbsolutePath();
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        Files.createDirectories(source);
+        Files.createDirectories(target);
+        Files.writeString(source.resolve("a.txt"), "a", StandardCharsets.UTF_8);
+        Files.writeString(source.resolve("b.txt"), "b", StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void isUpToDateShouldSucceedForRecordedFile() throws IOException {
+        // given
+        final var manifest = CopyManifest.load(file, source, target, null);
+        manifest.record("a.txt", attributes("a.txt"));
+        manifest.save();
+
+        // when
+        final var actual = CopyManifest.load(file, source, target, null).isUpToDate("a.txt", attributes("a.txt"));
+
+        // then
+        assertThat(actual).isTrue();
+    }
+
+    @Test
+    public void saveShouldDropEntriesWhichWereNotRecordedAgain() throws IOException {
+        // given
+        final var first = CopyManifest.load(file, source, target, null);
+        first.record("a.txt", attributes("a.txt"));
+        first.record("b.txt", attributes("b.txt"));
+        first.save();
+        final var second = CopyManifest.load(file, source, target, null);
+        second.isUpToDate("a.txt", attributes("a.txt"));
+        second.save();
+
+        // when
+        final var actual = CopyManifest.load(file, source, target, null).isUpToDate("b.txt", attributes("b.txt"));
+
+        // then
+        assertThat(actual).isFalse();
+    }
+
+    @Test
+    public void loadShouldIgnoreManifestOfOtherTarget() throws IOException {
+        // given
+        final var manifest = CopyManifest.load(file, source, target, null);
+        manifest.record("a.txt", attributes("a.txt"));
+        manifest.save();
+
+        // when
+        final var actual = CopyManifest.load(file, source, source, null).isUpToDate("a.txt", attributes("a.txt"));
+
+        // then
+        assertThat(actual).isFalse();
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(new File("testarea"));
+    }
+
+    private static BasicFileAttributes attributes(final String name) throws IOException {
+        return Files.readAttributes(source.resolve(name), BasicFileAttributes.class);
+    }
+}
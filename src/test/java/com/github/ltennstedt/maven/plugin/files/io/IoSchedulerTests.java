@@ -0,0 +1,154 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+public final class IoSchedulerTests {
+    @Test
+    public void getShouldKeepBudgetOfFirstExecution() throws IOException {
+        // given
+        final var schedulers = new IoSchedulers();
+        final var first = schedulers.get(Path.of("testarea"), 3, "first");
+
+        // when
+        final var actual = schedulers.get(Path.of("testarea/does/not/exist"), 7, "second");
+
+        // then
+        assertThat(first.getPermits()).isEqualTo(3);
+        assertThat(actual.getPermits()).isEqualTo(3);
+        assertThat(actual.getQueue()).isEqualTo("second");
+    }
+
+    @Test
+    public void ofShouldReturnRegistryOfSession() {
+        // given
+        final var session = new Object();
+        final var first = IoSchedulers.of(session);
+
+        // when
+        final var actual = IoSchedulers.of(session);
+
+        // then
+        assertThat(actual).isSameAs(first);
+        assertThat(IoSchedulers.of(new Object())).isNotSameAs(first);
+    }
+
+    @Test
+    public void runShouldStayWithinBudget() throws IOException {
+        // given
+        final var scheduler = new IoSchedulers().get(Path.of("testarea"), 3, "");
+        final var running = new AtomicInteger();
+        final var maximum = new AtomicInteger();
+
+        // when
+        try (var runner = new TaskRunner(8)) {
+            runner.setScheduler(scheduler);
+            for (var i = 0; i < 64; i++) {
+                runner.submit(Path.of("entry" + i), () -> {
+                    maximum.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    running.decrementAndGet();
+                });
+            }
+            runner.await();
+        }
+
+        // then
+        assertThat(maximum.get()).isBetween(1, scheduler.getPermits());
+    }
+
+    @Test
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    public void runShouldServeQueuesInTurn() throws IOException, InterruptedException {
+        // given
+        final var schedulers = new IoSchedulers();
+        final var busy = schedulers.get(Path.of("testarea"), 1, "busy");
+        final var other = schedulers.get(Path.of("testarea"), 1, "other");
+        final List<String> order = new CopyOnWriteArrayList<>();
+        final var release = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        threads.add(waitingThread(busy, () -> {
+            try {
+                release.await();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        for (var i = 1; i <= 3; i++) {
+            final var name = "busy" + i;
+            threads.add(waitingThread(busy, () -> order.add(name)));
+        }
+        threads.add(waitingThread(other, () -> order.add("other")));
+
+        // when
+        release.countDown();
+        for (final var thread : threads) {
+            thread.join();
+        }
+
+        // then
+        assertThat(order).containsExactly("busy1", "other", "busy2", "busy3");
+    }
+
+    @Test
+    public void runShouldNotTakeSecondPermitForNestedTask() throws IOException {
+        // given
+        final var scheduler = new IoSchedulers().get(Path.of("testarea"), 3, "");
+        final var ran = new AtomicInteger();
+        IoTask task = ran::incrementAndGet;
+        for (var i = 0; i < scheduler.getPermits(); i++) {
+            final var nested = task;
+            task = () -> scheduler.run(nested);
+        }
+
+        // when
+        scheduler.run(task);
+
+        // then
+        assertThat(ran.get()).isEqualTo(1);
+    }
+
+    /**
+     * Starts a thread running the task with the scheduler and returns once it holds or waits for a permit
+     */
+    @SuppressWarnings("PMD.DoNotUseThreads")
+    private static Thread waitingThread(final IoScheduler scheduler, final Runnable task) throws InterruptedException {
+        final var thread = new Thread(() -> {
+            try {
+                scheduler.run(task::run);
+            } catch (final IOException exception) {
+                throw new UncheckedIOException(exception);
+            }
+        });
+        thread.start();
+        while (thread.getState() != Thread.State.WAITING && thread.isAlive()) {
+            Thread.sleep(5L);
+        }
+        return thread;
+    }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+public final class OperationJournalTests {
+    private static final Path file = Path.of("testarea/journal/copy.journal").toAbsolutePath();
+    private static final Path source = Path.of("source").toAbsolutePath();
+    private static final Path target = Path.of("target").toAbsolutePath();
+
+    @Test
+    public void openShouldReadCheckpointedEntries() throws IOException {
+        // given
+        final var a = attributes("a.txt", "a");
+        final var c = attributes("c.txt", "c");
+        try (var journal = OperationJournal.open(file, "copy", source, target, 2)) {
+            journal.record("a.txt", a);
+            journal.record("b.txt", attributes("b.txt", "b"));
+            journal.record("c.txt", c);
+        }
+
+        // when
+        final var actual = OperationJournal.open(file, "copy", source, target, 2);
+
+        // then
+        assertThat(actual.isCompleted("a.txt", a)).isTrue();
+        assertThat(actual.isCompleted("c.txt", c)).isTrue();
+        assertThat(actual.isCompleted("d.txt", attributes("d.txt", "d"))).isFalse();
+        actual.close();
+    }
+
+    @Test
+    public void isCompletedShouldReturnFalseForRegeneratedSource() throws IOException {
+        // given
+        final var a = attributes("a.txt", "a");
+        try (var journal = OperationJournal.open(file, "copy", source, target, 1)) {
+            journal.record("a.txt", a);
+        }
+        final var path = file.resolveSibling("a.txt");
+        Files.writeString(path, "regenerated", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(a.lastModifiedTime().toMillis() + 2000L));
+
+        // when
+        try (var actual = OperationJournal.open(file, "copy", source, target, 1)) {
+            // then
+            assertThat(actual.isCompleted("a.txt", Files.readAttributes(path, BasicFileAttributes.class)))
+                    .isFalse();
+        }
+    }
+
+    @Test
+    public void openShouldDiscardTornLine() throws IOException {
+        // given
+        final var a = attributes("a.txt", "a");
+        final var c = attributes("c.txt", "c");
+        try (var journal = OperationJournal.open(file, "copy", source, target, 1)) {
+            journal.record("a.txt", a);
+        }
+        Files.writeString(file, "1\t1\tb.t", StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+
+        // when
+        try (var journal = OperationJournal.open(file, "copy", source, target, 1)) {
+            journal.record("c.txt", c);
+        }
+
+        // then
+        try (var actual = OperationJournal.open(file, "copy", source, target, 1)) {
+            assertThat(actual.isCompleted("a.txt", a)).isTrue();
+            assertThat(actual.isCompleted("b.t", a)).isFalse();
+            assertThat(actual.isCompleted("c.txt", c)).isTrue();
+        }
+    }
+
+    @Test
+    public void openShouldDiscardJournalOfOtherOperation() throws IOException {
+        // given
+        final var a = attributes("a.txt", "a");
+        try (var journal = OperationJournal.open(file, "move", source, target, 1)) {
+            journal.record("a.txt", a);
+        }
+
+        // when
+        try (var actual = OperationJournal.open(file, "copy", source, target, 1)) {
+            // then
+            assertThat(actual.isCompleted("a.txt", a)).isFalse();
+        }
+    }
+
+    @Test
+    public void recordShouldCheckpointLargeEntry() throws IOException {
+        // given
+        final var path = file.resolveSibling("large.bin");
+        Files.createDirectories(path.getParent());
+        try (var randomAccessFile = new RandomAccessFile(path.toFile(), "rw")) {
+            randomAccessFile.setLength(OperationJournal.CHECKPOINT_BYTES);
+        }
+        final var large = Files.readAttributes(path, BasicFileAttributes.class);
+        final var killed = OperationJournal.open(file, "copy", source, target, OperationJournal.DEFAULT_BATCH_SIZE);
+
+        // when
+        killed.record("large.bin", large);
+
+        // then
+        try (var actual = OperationJournal.open(file, "copy", source, target, 1)) {
+            assertThat(actual.isCompleted("large.bin", large)).isTrue();
+        } finally {
+            killed.delete();
+        }
+    }
+
+    @Test
+    public void recordShouldCheckpointAfterInterval() throws IOException, InterruptedException {
+        // given
+        final var a = attributes("a.txt", "a");
+        final var b = attributes("b.txt", "b");
+        final var killed = OperationJournal.open(file, "copy", source, target, OperationJournal.DEFAULT_BATCH_SIZE);
+        killed.record("a.txt", a);
+        killed.record("b.txt", b);
+
+        // when
+        Thread.sleep(3L * OperationJournal.CHECKPOINT_MILLIS);
+
+        // then
+        try (var actual = OperationJournal.open(file, "copy", source, target, 1)) {
+            assertThat(actual.isCompleted("a.txt", a)).isTrue();
+            assertThat(actual.isCompleted("b.txt", b)).isTrue();
+        } finally {
+            killed.delete();
+        }
+    }
+
+    @Test
+    public void deleteShouldRemoveJournal() throws IOException {
+        // given
+        final var journal = OperationJournal.open(file, "copy", source, target, 1);
+        journal.record("a.txt", attributes("a.txt", "a"));
+
+        // when
+        journal.delete();
+
+        // then
+        assertThat(file).doesNotExist();
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(file.getParent().toFile());
+    }
+
+    private static BasicFileAttributes attributes(final String name, final String content) throws IOException {
+        final var path = file.resolveSibling(name);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return Files.readAttributes(path, BasicFileAttributes.class);
+    }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import org.junit.jupiter.api.Test;
+
+public final class OperationMetricsTests {
+    @Test
+    public void percentileShouldSucceedWithoutMeasurements() {
+        // given
+        final var metrics = new OperationMetrics("copy");
+
+        // when
+        final var actual = metrics.percentile(0.99);
+
+        // then
+        assertThat(actual).isZero();
+    }
+
+    @Test
+    public void percentileShouldBoundMeasuredLatency() throws IOException {
+        // given
+        final var metrics = new OperationMetrics("copy");
+        metrics.start();
+        final var start = System.nanoTime();
+        metrics.measure(() -> Thread.onSpinWait());
+        final var elapsed = System.nanoTime() - start;
+
+        // when
+        final var actual = metrics.percentile(0.5);
+
+        // then
+        assertThat(actual).isGreaterThanOrEqualTo(0L).isLessThanOrEqualTo(elapsed * 9L / 8L + 16L);
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+public final class PathFilterTests {
+    @Test
+    public void isSelectedShouldMatchLeadingAnyDirsAtRoot() {
+        // given
+        final var filter = new PathFilter(List.of("**/*.txt"), null);
+
+        // when
+        final var actual = filter.isSelected(Path.of("file.txt"));
+
+        // then
+        assertThat(actual).isTrue();
+    }
+
+    @Test
+    public void isSelectedShouldFailForExcludedEntry() {
+        // given
+        final var filter = new PathFilter(null, List.of("**/*.tmp"));
+
+        // when
+        final var actual = filter.isSelected(Path.of("subdir", "file.tmp"));
+
+        // then
+        assertThat(actual).isFalse();
+    }
+
+    @Test
+    public void isPrunedShouldSucceedForExcludedDirectory() {
+        // given
+        final var filter = new PathFilter(null, List.of("**/.git/**"));
+
+        // when
+        final var actual = filter.isPruned(Path.of("module", ".git"));
+
+        // then
+        assertThat(actual).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+public final class TaskRunnerTests {
+    @Test
+    public void awaitShouldReportUnexpectedFailureWithCause() {
+        // given
+        final var cause = new IllegalStateException("broken");
+        final var runner = new TaskRunner(2);
+        runner.submit(Path.of("entry"), () -> {
+            throw cause;
+        });
+
+        // when
+        final var thrown = assertThatThrownBy(runner::await);
+
+        // then
+        thrown.isInstanceOfSatisfying(FailedEntriesException.class,
+                exception -> assertThat(exception.getFailures().get(Path.of("entry"))).hasCause(cause));
+        runner.close();
+    }
+
+    @Test
+    public void closeShouldWaitForRunningTasks() throws InterruptedException {
+        // given
+        final var started = new CountDownLatch(1);
+        final var stopped = new AtomicBoolean();
+        final var runner = new TaskRunner(2);
+        runner.submit(Path.of("entry"), () -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000L);
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+            stopped.set(true);
+        });
+        started.await();
+
+        // when
+        runner.close();
+
+        // then
+        assertThat(stopped).isTrue();
+    }
+}
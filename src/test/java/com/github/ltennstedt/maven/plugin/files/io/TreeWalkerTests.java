@@ -0,0 +1,82 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.io;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class TreeWalkerTests {
+    private static final Path root = Path.of("testarea/walker").toAbsolutePath();
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        for (var i = 0; i < 4; i++) {
+            final var dir = Files.createDirectories(root.resolve("dir" + i).resolve("subdir"));
+            for (var j = 0; j < 50; j++) {
+                Files.writeString(dir.resolve("file" + j + ".txt"), "file", StandardCharsets.UTF_8);
+                Files.writeString(dir.getParent().resolve("file" + j + ".txt"), "file", StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    @Test
+    public void walkShouldLeaveDirectoriesAfterTheirEntries() throws IOException {
+        // given
+        final List<Path> events = new CopyOnWriteArrayList<>();
+        final var walker = new TreeWalker(4, ExecutorMode.PLATFORM, new PathFilter(null, null),
+                new OperationMetrics("test"));
+
+        // when
+        walker.walk(root, new EntryVisitor() {
+            @Override
+            public void visitFile(final Path file, final BasicFileAttributes attributes, final Path relativePath) {
+                events.add(relativePath);
+            }
+
+            @Override
+            public void leaveDirectory(final Path dir, final Path relativePath) {
+                events.add(relativePath);
+            }
+        });
+
+        // then
+        assertThat(events).hasSize(4 * 100 + 4 * 2 + 1).endsWith(Path.of(""));
+        for (var i = 0; i < events.size(); i++) {
+            final var dir = events.get(i);
+            if (Files.isDirectory(root.resolve(dir))) {
+                assertThat(events.subList(i + 1, events.size()))
+                        .noneMatch(entry -> entry.startsWith(dir) && !entry.equals(dir));
+            }
+        }
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        FileUtils.deleteDirectory(root.toFile());
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.google.common.base.MoreObjects;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class BatchMojoTests {
+    private static final File testarea = new File("testarea");
+    private BatchMojo mojo;
+
+    @BeforeAll
+    public static void setUpAll() throws IOException {
+        testarea.mkdir();
+        FileUtils.copyDirectory(new File("src/test/resources/copy"), new File("testarea/batch"));
+    }
+
+    @BeforeEach
+    public void setUpEach() {
+        mojo = new BatchMojo();
+    }
+
+    @Test
+    public void executeShouldRunOverlappingOperationsInOrder() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setOperations(List.of(
+                operation("copy", "testarea/batch/dirToCopy", "testarea/batch/copied"),
+                operation("copy", "testarea/batch/fileToCopy.txt", "testarea/batch/single/copiedFile.txt"),
+                operation("move", "testarea/batch/copied", "testarea/batch/moved"),
+                operation("delete", "testarea/batch/moved/subdir", null)));
+        mojo.setThreads(4);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/batch/moved/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+        assertThat(new File("testarea/batch/single/copiedFile.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/fileToCopy.txt"));
+        assertThat(new File("testarea/batch/copied")).doesNotExist();
+        assertThat(new File("testarea/batch/moved/subdir")).doesNotExist();
+    }
+
+    @Test
+    public void executeShouldThrowExceptionForUnknownGoal() {
+        // given
+        mojo.setOperations(List.of(operation("rename", "testarea/batch/fileToCopy.txt", "testarea/batch/renamed")));
+
+        // when
+        final var thrown = assertThatThrownBy(() -> mojo.execute());
+
+        // then
+        thrown.isExactlyInstanceOf(MojoFailureException.class);
+    }
+
+    @Test
+    public void executeShouldReportFailureByOperation() {
+        // given
+        final List<String> errors = new CopyOnWriteArrayList<>();
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public void error(final CharSequence content) {
+                errors.add(content.toString());
+            }
+        });
+        mojo.setOperations(List.of(
+                operation("copy", "testarea/batch/fileToCopy.txt", "testarea/batch/reported/copiedFile.txt"),
+                operation("copy", "testarea/batch/fileToCopy.txt", "testarea/batch/reported/missing.txt"),
+                operation("copy", "testarea/batch/missing.txt", "testarea/batch/reported/missing.txt")));
+
+        // when
+        final var thrown = assertThatThrownBy(() -> mojo.execute());
+
+        // then
+        thrown.isExactlyInstanceOf(MojoExecutionException.class);
+        assertThat(errors).anyMatch(error -> error.startsWith("Operation 3 "));
+    }
+
+    @Test
+    public void toStringShouldSucceed() {
+        // given
+        mojo.setOperations(List.of(operation("delete", "testarea/batch/fileToCopy.txt", null)));
+
+        // when
+        final var actual = mojo.toString();
+
+        // then
+        final var expected = MoreObjects.toStringHelper(mojo).add("operations", mojo.getOperations())
+                .add("threads", mojo.getThreads()).toString();
+        assertThat(actual).isEqualTo(expected);
+    }
+
+    private static Operation operation(final String goal, final String file, final String into) {
+        final var operation = new Operation();
+        operation.setGoal(goal);
+        operation.setFile(new File(file));
+        if (into != null) {
+            operation.setInto(new File(into));
+        }
+        return operation;
+    }
+
+    @AfterAll
+    public static void cleanUpAll() throws IOException {
+        FileUtils.deleteDirectory(testarea);
+    }
+}
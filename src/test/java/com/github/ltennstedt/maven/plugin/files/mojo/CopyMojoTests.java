@@ -17,15 +17,32 @@
 package com.github.ltennstedt.maven.plugin.files.mojo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import com.github.ltennstedt.maven.plugin.files.io.Digests;
+import com.github.ltennstedt.maven.plugin.files.io.FailedEntriesException;
+import com.github.ltennstedt.maven.plugin.files.io.OperationJournal;
 import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipOutputStream;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -78,6 +95,650 @@ public final class CopyMojoTests {
         assertThat(new File("testarea/copy/dirToCopy/subdir")).isDirectory();
     }
 
+    @Test
+    public void executeDirWithThreadsShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        final var file = new File("testarea/copy/dirToCopy");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeDirWithVirtualThreadsShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(64);
+        mojo.setExecutor("virtual");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeDirWithIoBudgetShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+        mojo.setIoBudget(2);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeWithUnknownExecutorShouldFail() {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setExecutor("green");
+
+        // when
+        final var thrown = assertThatThrownBy(mojo::execute);
+
+        // then
+        thrown.isInstanceOf(MojoFailureException.class);
+    }
+
+    @Test
+    public void executeDirWithBatchDurabilityShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+        mojo.setDurability("batch");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeWithUnknownDurabilityShouldFail() {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setDurability("eventual");
+
+        // when
+        final var thrown = assertThatThrownBy(mojo::execute);
+
+        // then
+        thrown.isInstanceOf(MojoFailureException.class);
+    }
+
+    @Test
+    public void executeDirWithThreadsShouldReportFailedEntries() {
+        // given
+        new File("testarea/into/file.txt/blocker").mkdirs();
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+
+        // when
+        final var thrown = assertThatThrownBy(mojo::execute);
+
+        // then
+        thrown.isInstanceOf(MojoExecutionException.class).hasCauseInstanceOf(FailedEntriesException.class);
+    }
+
+    @Test
+    public void executeIncrementalShouldSkipUnchangedFiles()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncremental(true);
+        mojo.execute();
+        final var copied = new File("testarea/into/file.txt").toPath();
+        final var lastModified = Files.getLastModifiedTime(copied);
+        final var content = Files.readString(copied, StandardCharsets.UTF_8);
+        final var marker = "x".repeat(content.length());
+        Files.writeString(copied, marker, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(copied, lastModified);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(copied).hasContent(marker);
+    }
+
+    @Test
+    public void executeIncrementalWithDigestShouldCopyChangedFiles()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncremental(true);
+        mojo.setDigestAlgorithm("SHA-256");
+        mojo.execute();
+        final var copied = new File("testarea/into/file.txt").toPath();
+        final var lastModified = Files.getLastModifiedTime(copied);
+        final var content = Files.readString(copied, StandardCharsets.UTF_8);
+        Files.writeString(copied, "x".repeat(content.length()), StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(copied, lastModified);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(copied.toFile()).hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeIncrementalWithManifestShouldNotExamineTargets()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncremental(true);
+        mojo.setManifest(new File("testarea/into-manifest/copy.idx"));
+        mojo.execute();
+        final var copied = new File("testarea/into/file.txt").toPath();
+        final var content = Files.readString(copied, StandardCharsets.UTF_8);
+        final var marker = "x".repeat(content.length());
+        Files.writeString(copied, marker, StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(copied, FileTime.fromMillis(0L));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(copied).hasContent(marker);
+        assertThat(new File("testarea/into-manifest/copy.idx")).isFile();
+    }
+
+    @Test
+    public void executeIncrementalWithUnknownDigestShouldFail() {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncremental(true);
+        mojo.setDigestAlgorithm("unknown");
+
+        // when
+        final var thrown = assertThatThrownBy(mojo::execute);
+
+        // then
+        thrown.isInstanceOf(MojoFailureException.class);
+    }
+
+    @Test
+    public void executeDirWithChannelTransferShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setTransfer("channel");
+        mojo.setChunkSize(2L);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeFileWithSparseTransferShouldSucceed()
+            throws MojoFailureException, MojoExecutionException, IOException, InterruptedException {
+        // given
+        final var content = new byte[3 * 1024 * 1024 + 100];
+        Arrays.fill(content, 0, 5000, (byte) 1);
+        Arrays.fill(content, 2 * 1024 * 1024, 2 * 1024 * 1024 + 10, (byte) 2);
+        final var file = new File("testarea/into-sparse/sparse.img");
+        FileUtils.writeByteArrayToFile(file, content);
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/sparse.img"));
+        mojo.setTransfer("sparse");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/sparse.img")).hasBinaryContent(content);
+        Assumptions.assumeTrue(isSparseSupported(Path.of("testarea/into-sparse/probe.img")), "no sparse file support");
+        assertThat(allocatedBytes(Path.of("testarea/into/sparse.img"))).isLessThan(content.length / 2L);
+    }
+
+    @Test
+    public void executeFileWithSparseTransferShouldPreallocateTargetOfSourceEndingInZeros()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var content = new byte[2 * 1024 * 1024];
+        Arrays.fill(content, 0, 1024 * 1024, (byte) 3);
+        final var file = new File("testarea/into-sparse/trailing.img");
+        FileUtils.writeByteArrayToFile(file, content);
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/trailing.img"));
+        mojo.setTransfer("sparse");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/trailing.img")).hasSize(content.length).hasBinaryContent(content);
+    }
+
+    @Test
+    public void executeFileIntoHardLinkWithSparseTransferShouldKeepLinkedFile()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        Files.createDirectories(Path.of("testarea/into-links"));
+        final var linked = Files.writeString(Path.of("testarea/into-links/linked.txt"), "linked",
+                StandardCharsets.UTF_8);
+        Files.createDirectories(Path.of("testarea/into"));
+        Files.createLink(Path.of("testarea/into/copiedFile.txt"), linked);
+        final var file = new File("testarea/copy/fileToCopy.txt");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/copiedFile.txt"));
+        mojo.setTransfer("sparse");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/copiedFile.txt")).hasSameContentAs(file);
+        assertThat(linked).hasContent("linked");
+    }
+
+    @Test
+    public void executeFileIntoHardLinkWithChannelTransferShouldKeepLinkedFile()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        Files.createDirectories(Path.of("testarea/into-links"));
+        final var linked = Files.writeString(Path.of("testarea/into-links/linked.txt"), "linked",
+                StandardCharsets.UTF_8);
+        Files.createDirectories(Path.of("testarea/into"));
+        Files.createLink(Path.of("testarea/into/copiedFile.txt"), linked);
+        final var file = new File("testarea/copy/fileToCopy.txt");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/copiedFile.txt"));
+        mojo.setTransfer("channel");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/copiedFile.txt")).hasSameContentAs(file);
+        assertThat(linked).hasContent("linked");
+    }
+
+    @Test
+    public void executeFileIntoHardLinkWithReflinkTransferShouldKeepLinkedFile()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        Files.createDirectories(Path.of("testarea/into-links"));
+        final var linked = Files.writeString(Path.of("testarea/into-links/linked.txt"), "linked",
+                StandardCharsets.UTF_8);
+        Files.createDirectories(Path.of("testarea/into"));
+        Files.createLink(Path.of("testarea/into/copiedFile.txt"), linked);
+        final var file = new File("testarea/copy/fileToCopy.txt");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/copiedFile.txt"));
+        mojo.setTransfer("reflink");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/copiedFile.txt")).hasSameContentAs(file);
+        assertThat(linked).hasContent("linked");
+    }
+
+    @Test
+    public void executeFileIntoHardLinkWithVerifyShouldKeepLinkedFile()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        Files.createDirectories(Path.of("testarea/into-links"));
+        final var linked = Files.writeString(Path.of("testarea/into-links/linked.txt"), "linked",
+                StandardCharsets.UTF_8);
+        Files.createDirectories(Path.of("testarea/into"));
+        Files.createLink(Path.of("testarea/into/copiedFile.txt"), linked);
+        final var file = new File("testarea/copy/fileToCopy.txt");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/copiedFile.txt"));
+        mojo.setVerify(true);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/copiedFile.txt")).hasSameContentAs(file);
+        assertThat(linked).hasContent("linked");
+    }
+
+    @Test
+    public void executeFileWithReflinkTransferShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        final var file = new File("testarea/copy/fileToCopy.txt");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/copiedFile.txt"));
+        mojo.setTransfer("reflink");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/copiedFile.txt")).hasSameContentAs(file);
+    }
+
+    @Test
+    public void executeDirWithHardlinksShouldSucceed()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setLinkMode("hardlink-or-copy");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(Files.isSameFile(new File("testarea/into/file.txt").toPath(),
+                new File("testarea/copy/dirToCopy/file.txt").toPath())).isTrue();
+    }
+
+    @Test
+    public void executeDirWithSymlinksShouldSucceed() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setLinkMode("symlink");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt").toPath()).isSymbolicLink();
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+    }
+
+    @Test
+    public void executeWithUnknownTransferShouldFail() {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setTransfer("unknown");
+
+        // when
+        final var thrown = assertThatThrownBy(mojo::execute);
+
+        // then
+        thrown.isInstanceOf(MojoFailureException.class);
+    }
+
+    @Test
+    public void executeDirWithExcludesShouldSkipPrunedDirectory() throws MojoFailureException, MojoExecutionException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setExcludes(List.of("**/subdir/**"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+        assertThat(new File("testarea/into/subdir")).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithReportShouldWriteJson()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var report = new File("testarea/into-report/copy.json");
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setReport(report);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(Files.readString(report.toPath(), StandardCharsets.UTF_8)).contains("\"operation\": \"copy\"")
+                .contains("\"files\": 2").contains("\"directories\": 2");
+    }
+
+    @Test
+    public void executeDirWithDedupShouldLinkDuplicates()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/copy/dedupDir");
+        FileUtils.copyFile(new File("src/test/resources/copy/fileToCopy.txt"), new File(file, "first.txt"));
+        FileUtils.copyFile(new File("src/test/resources/copy/fileToCopy.txt"), new File(file, "subdir/second.txt"));
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(2);
+        mojo.setDedup(true);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(Files.isSameFile(Path.of("testarea/into/first.txt"), Path.of("testarea/into/subdir/second.txt")))
+                .isTrue();
+    }
+
+    @Test
+    public void executeDirWithVerifyShouldWriteChecksums()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(2);
+        mojo.setVerify(true);
+
+        // when
+        mojo.execute();
+
+        // then
+        final var expected = Digests.toHex(Digests.digest(Path.of("testarea/into/subdir/file.txt"), "SHA-256"));
+        assertThat(Files.readAllLines(Path.of("testarea/into.sha256"), StandardCharsets.UTF_8))
+                .contains(expected + "  subdir/file.txt").hasSize(2);
+    }
+
+    @Test
+    public void executeIncrementalWithVerifyShouldKeepChecksumsOfSkippedFiles()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncremental(true);
+        mojo.setVerify(true);
+        mojo.setDigestAlgorithm("CRC32C");
+        mojo.execute();
+        final var checksums = Path.of("testarea/into.crc32c");
+        final var expected = Files.readAllLines(checksums, StandardCharsets.UTF_8);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(Files.readAllLines(checksums, StandardCharsets.UTF_8)).isEqualTo(expected).hasSize(2);
+    }
+
+    @Test
+    public void executeDirWithArchiveShouldWriteZip() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into/dirToCopy.zip"));
+        mojo.setThreads(4);
+        mojo.setArchive("zip");
+
+        // when
+        mojo.execute();
+
+        // then
+        try (var zip = new ZipFile(new File("testarea/into/dirToCopy.zip"))) {
+            assertThat(zip.getEntry("subdir/")).isNotNull();
+            try (var in = zip.getInputStream(zip.getEntry("subdir/file.txt"))) {
+                assertThat(in.readAllBytes())
+                        .isEqualTo(Files.readAllBytes(Path.of("src/test/resources/copy/dirToCopy/subdir/file.txt")));
+            }
+        }
+    }
+
+    @Test
+    public void executeWithExtractShouldUnpackZip() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var archive = new File("testarea/copy/bundle.zip");
+        try (var zip = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            zip.putNextEntry(new ZipEntry("lib/"));
+            zip.putNextEntry(new ZipEntry("lib/tool.txt"));
+            zip.write("tool".getBytes(StandardCharsets.UTF_8));
+            zip.putNextEntry(new ZipEntry("lib/skip.tmp"));
+            zip.closeEntry();
+        }
+        mojo.setFile(archive);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+        mojo.setExtract(true);
+        mojo.setExcludes(List.of("**/*.tmp"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/lib/tool.txt")).hasContent("tool");
+        assertThat(new File("testarea/into/lib/skip.tmp")).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithMirrorShouldDeleteOrphans()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        FileUtils.copyFile(new File("src/test/resources/copy/fileToCopy.txt"), new File("testarea/into/stale.txt"));
+        FileUtils.copyFile(new File("src/test/resources/copy/fileToCopy.txt"),
+                new File("testarea/into/staleDir/subdir/stale.txt"));
+        FileUtils.copyFile(new File("src/test/resources/copy/fileToCopy.txt"), new File("testarea/into/keep.log"));
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+        mojo.setExcludes(List.of("**/*.log"));
+        mojo.setMirror(true);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/stale.txt")).doesNotExist();
+        assertThat(new File("testarea/into/staleDir")).doesNotExist();
+        assertThat(new File("testarea/into/keep.log")).exists();
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+    }
+
+    @Test
+    public void executeDirWithJournalShouldResume() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/copy/dirToCopy");
+        final var journal = new File("testarea/into-journal/copy.journal");
+        Files.createDirectories(Path.of("testarea/into"));
+        final var copied = Files.readString(Path.of("testarea/copy/dirToCopy/file.txt"), StandardCharsets.UTF_8)
+                .replaceAll(".", "x");
+        Files.writeString(Path.of("testarea/into/file.txt"), copied, StandardCharsets.UTF_8);
+        try (var operationJournal = OperationJournal.open(journal.toPath(), "copy", Path.of(file.getAbsolutePath()),
+                Path.of(new File("testarea/into").getAbsolutePath()), 1)) {
+            operationJournal.record("file.txt",
+                    Files.readAttributes(Path.of("testarea/copy/dirToCopy/file.txt"), BasicFileAttributes.class));
+        }
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setJournal(journal);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt")).hasContent(copied);
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/subdir/file.txt"));
+        assertThat(journal).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithJournalShouldCopyRegeneratedSource()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/copy/journalDir");
+        FileUtils.copyDirectory(new File("src/test/resources/copy/dirToCopy"), file);
+        final var source = Path.of("testarea/copy/journalDir/file.txt");
+        final var journal = new File("testarea/into-journal/copy.journal");
+        try (var operationJournal = OperationJournal.open(journal.toPath(), "copy", Path.of(file.getAbsolutePath()),
+                Path.of(new File("testarea/into").getAbsolutePath()), 1)) {
+            operationJournal.record("file.txt", Files.readAttributes(source, BasicFileAttributes.class));
+        }
+        Files.writeString(source, "regenerated", StandardCharsets.UTF_8);
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setJournal(journal);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt")).hasContent("regenerated");
+        assertThat(journal).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithCacheShouldMaterializeCachedContents()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        mojo.setFile(new File("testarea/copy/dirToCopy"));
+        mojo.setInto(new File("testarea/into-cached"));
+        mojo.setCache(new File("testarea/into-cache"));
+        mojo.execute();
+        mojo.setInto(new File("testarea/into"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/copy/dirToCopy/file.txt"));
+        assertThat(Files.isSameFile(Path.of("testarea/into/file.txt"), Path.of("testarea/into-cached/file.txt")))
+                .isTrue();
+        assertThat(Files.getPosixFilePermissions(Path.of("testarea/into/file.txt")))
+                .doesNotContain(PosixFilePermission.OWNER_WRITE);
+    }
+
     @Test
     public void toStringShouldSucceed() {
         // given
@@ -93,9 +754,47 @@ public final class CopyMojoTests {
         assertThat(actual).isEqualTo(expected);
     }
 
+    /**
+     * Returns true if a file extended without writing occupies less space than its size
+     */
+    private static boolean isSparseSupported(final Path probe) throws IOException, InterruptedException {
+        try (var file = new RandomAccessFile(probe.toFile(), "rw")) {
+            file.setLength(8L * 1024L * 1024L);
+        }
+        final var allocated = allocatedBytes(probe);
+        return allocated >= 0L && allocated < Files.size(probe);
+    }
+
+    /**
+     * Returns the space occupied by the file according to du or -1 if du is not available
+     */
+    private static long allocatedBytes(final Path path) throws IOException, InterruptedException {
+        final Process process;
+        try {
+            process = new ProcessBuilder("du", "-k", path.toString()).redirectErrorStream(true).start();
+        } catch (final IOException exception) {
+            return -1L;
+        }
+        if (process.waitFor() != 0) {
+            return -1L;
+        }
+        final var output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        return Long.parseLong(output.trim().split("\\s+")[0]) * 1024L;
+    }
+
     @AfterEach
     public void cleanUpEach() throws IOException {
         FileUtils.deleteDirectory(new File("testarea/into"));
+        FileUtils.deleteDirectory(new File("testarea/into-report"));
+        FileUtils.deleteDirectory(new File("testarea/into-manifest"));
+        FileUtils.deleteDirectory(new File("testarea/into-journal"));
+        FileUtils.deleteDirectory(new File("testarea/copy/journalDir"));
+        FileUtils.deleteDirectory(new File("testarea/into-sparse"));
+        FileUtils.deleteDirectory(new File("testarea/into-links"));
+        FileUtils.deleteDirectory(new File("testarea/into-cached"));
+        FileUtils.deleteDirectory(new File("testarea/into-cache"));
+        Files.deleteIfExists(Path.of("testarea/into.sha256"));
+        Files.deleteIfExists(Path.of("testarea/into.crc32c"));
     }
 
     @AfterAll
@@ -18,9 +18,12 @@ package com.github.ltennstedt.maven.plugin.files.mojo;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.github.ltennstedt.maven.plugin.files.io.TrashCollector;
 import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -71,6 +74,56 @@ public final class DeleteMojoTests {
         assertThat(file).doesNotExist();
     }
 
+    @Test
+    public void executeDirWithThreadsShouldSucceed() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/delete/otherDir");
+        FileUtils.copyDirectory(new File("src/test/resources/delete/dirToDelete"), file);
+        FileUtils.copyDirectory(new File("src/test/resources/delete/dirToDelete"), new File(file, "second"));
+        mojo.setFile(file);
+        mojo.setThreads(4);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void executeDirAsyncShouldSucceed() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/delete/asyncDir");
+        FileUtils.copyDirectory(new File("src/test/resources/delete/dirToDelete"), file);
+        mojo.setFile(file);
+        mojo.setAsync(true);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(file).doesNotExist();
+        assertThat(TrashCollector.awaitPending(10L, TimeUnit.SECONDS)).isTrue();
+        assertThat(new File("testarea/delete").list((dir, name) -> name.startsWith(".asyncDir"))).isEmpty();
+    }
+
+    @Test
+    public void executeDirWithExcludesShouldKeepExcludedEntries()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/delete/filteredDir");
+        FileUtils.copyDirectory(new File("src/test/resources/delete/dirToDelete"), file);
+        mojo.setFile(file);
+        mojo.setExcludes(List.of("subdir/**"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File(file, "file.txt")).doesNotExist();
+        assertThat(new File(file, "subdir/file.txt")).exists();
+    }
+
     @Test
     public void toStringShouldSucceed() {
         // given
@@ -17,15 +17,26 @@
 package com.github.ltennstedt.maven.plugin.files.mojo;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
+import com.github.ltennstedt.maven.plugin.files.io.OperationJournal;
 import com.google.common.base.MoreObjects;
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.apache.commons.io.FileUtils;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -79,6 +90,201 @@ public final class MoveMojoTests {
         assertThat(file).doesNotExist();
     }
 
+    @Test
+    public void executeDirIntoNonEmptyDirShouldSucceed()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), new File("testarea/move/otherDir"));
+        FileUtils.copyFile(new File("src/test/resources/move/fileToMove.txt"), new File("testarea/into/existing.txt"));
+        final var file = new File("testarea/move/otherDir");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/file.txt"));
+        assertThat(new File("testarea/into/existing.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/fileToMove.txt"));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithPerFileDurabilityShouldSucceed()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), new File("testarea/move/durableDir"));
+        FileUtils.copyFile(new File("src/test/resources/move/fileToMove.txt"), new File("testarea/into/existing.txt"));
+        final var file = new File("testarea/move/durableDir");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setDurability("per-file");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/file.txt"));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void executeDirAcrossFileStoresShouldSyncCopiesBeforeDeletingSources()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var shm = Path.of("/dev/shm");
+        Assumptions.assumeTrue(Files.isDirectory(shm)
+                && !Files.getFileStore(shm).equals(Files.getFileStore(testarea.toPath())), "no second file store");
+        final var file = new File("testarea/move/crossDir");
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), file);
+        final var into = Files.createTempDirectory(shm, "files-maven-plugin-");
+        final var start = Path.of(file.getAbsolutePath());
+        final Map<Path, Boolean> sourcesAtSync = new ConcurrentHashMap<>();
+        mojo.setFile(file);
+        mojo.setInto(into.toFile());
+        mojo.setJournal(new File("testarea/move.journal"));
+        mojo.setDurability("per-file");
+        mojo.setSyncListener(path -> {
+            if (Files.isRegularFile(path)) {
+                sourcesAtSync.put(into.relativize(path), Files.exists(start.resolve(into.relativize(path))));
+            }
+        });
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(sourcesAtSync).containsOnly(entry(Path.of("file.txt"), true),
+                entry(Path.of("subdir/file.txt"), true));
+        assertThat(into.resolve("subdir/file.txt").toFile())
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(file).doesNotExist();
+        FileUtils.deleteDirectory(into.toFile());
+    }
+
+    @Test
+    public void executeDirRenamedWithBatchDurabilityShouldSucceed()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), new File("testarea/move/renamedDir"));
+        final var file = new File("testarea/move/renamedDir");
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into/renamedDir"));
+        mojo.setDurability("batch");
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/renamedDir/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithThreadsShouldSucceed() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/move/threadsDir");
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), file);
+        FileUtils.copyFile(new File("src/test/resources/move/fileToMove.txt"), new File("testarea/into/existing.txt"));
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setThreads(4);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(file).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithIncludesShouldKeepOtherEntries()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/move/filteredDir");
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), file);
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setIncludes(List.of("subdir/**"));
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(new File("testarea/into/file.txt")).doesNotExist();
+        assertThat(new File(file, "file.txt")).exists();
+        assertThat(new File(file, "subdir")).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithJournalShouldResume() throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/move/journalDir");
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), file);
+        Files.createDirectories(Path.of("testarea/into"));
+        final var source = Path.of("testarea/move/journalDir/file.txt");
+        Files.copy(source, Path.of("testarea/into/file.txt"), StandardCopyOption.COPY_ATTRIBUTES);
+        final var journal = new File("testarea/move.journal");
+        try (var operationJournal = OperationJournal.open(journal.toPath(), "move", Path.of(file.getAbsolutePath()),
+                Path.of(new File("testarea/into").getAbsolutePath()), 1)) {
+            operationJournal.record("file.txt", Files.readAttributes(source, BasicFileAttributes.class));
+        }
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setJournal(journal);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/file.txt"));
+        assertThat(new File("testarea/into/subdir/file.txt"))
+                .hasSameContentAs(new File("src/test/resources/move/dirToMove/subdir/file.txt"));
+        assertThat(file).doesNotExist();
+        assertThat(journal).doesNotExist();
+    }
+
+    @Test
+    public void executeDirWithJournalShouldMoveRegeneratedSource()
+            throws MojoFailureException, MojoExecutionException, IOException {
+        // given
+        final var file = new File("testarea/move/journalDir");
+        FileUtils.copyDirectory(new File("src/test/resources/move/dirToMove"), file);
+        Files.createDirectories(Path.of("testarea/into"));
+        final var source = Path.of("testarea/move/journalDir/file.txt");
+        Files.copy(source, Path.of("testarea/into/file.txt"), StandardCopyOption.COPY_ATTRIBUTES);
+        final var journal = new File("testarea/move.journal");
+        try (var operationJournal = OperationJournal.open(journal.toPath(), "move", Path.of(file.getAbsolutePath()),
+                Path.of(new File("testarea/into").getAbsolutePath()), 1)) {
+            operationJournal.record("file.txt", Files.readAttributes(source, BasicFileAttributes.class));
+        }
+        Files.writeString(source, "regenerated", StandardCharsets.UTF_8);
+        mojo.setFile(file);
+        mojo.setInto(new File("testarea/into"));
+        mojo.setJournal(journal);
+
+        // when
+        mojo.execute();
+
+        // then
+        assertThat(new File("testarea/into/file.txt")).hasContent("regenerated");
+        assertThat(file).doesNotExist();
+        assertThat(journal).doesNotExist();
+    }
+
     @Test
     public void toStringShouldSucceed() {
         // given
@@ -0,0 +1,173 @@
+/*
+ * Copyright 2017 Lars Tennstedt
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.ltennstedt.maven.plugin.files.mojo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.google.common.base.MoreObjects;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public final class WatchMojoTests {
+    private static final Path source = Path.of("testarea/watch/source");
+    private static final Path target = Path.of("testarea/watch/target");
+    private static final long TIMEOUT_MILLIS = 10_000L;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private WatchMojo mojo;
+
+    @BeforeEach
+    public void setUpEach() throws IOException {
+        Files.createDirectories(source.resolve("sub"));
+        Files.writeString(source.resolve("sub/initial.txt"), "initial", StandardCharsets.UTF_8);
+        mojo = new WatchMojo();
+        mojo.setFile(source.toFile());
+        mojo.setInto(target.toFile());
+        mojo.setDebounce(50L);
+    }
+
+    @Test
+    public void executeShouldSyncChanges() throws IOException, InterruptedException {
+        // given
+        final var watching = start();
+
+        // when
+        Files.createDirectories(source.resolve("new"));
+        Files.writeString(source.resolve("new/created.txt"), "created", StandardCharsets.UTF_8);
+        Files.delete(source.resolve("sub/initial.txt"));
+
+        // then
+        awaitCondition(() -> Files.exists(target.resolve("new/created.txt"))
+                && !Files.exists(target.resolve("sub/initial.txt")));
+        stop(watching);
+        assertThat(target.resolve("new/created.txt")).hasContent("created");
+    }
+
+    @Test
+    public void executeShouldCopyFileOfCreatedDirectoryOnce() throws IOException, InterruptedException {
+        // given
+        final List<String> copied = new CopyOnWriteArrayList<>();
+        mojo.setLog(new SystemStreamLog() {
+            @Override
+            public boolean isDebugEnabled() {
+                return true;
+            }
+
+            @Override
+            public void debug(final CharSequence content) {
+                if (content.toString().startsWith("Copied")) {
+                    copied.add(content.toString());
+                }
+            }
+        });
+        final var watching = start();
+
+        // when
+        Files.createDirectories(source.resolve("new"));
+        Files.writeString(source.resolve("new/created.txt"), "created", StandardCharsets.UTF_8);
+
+        // then
+        awaitCondition(() -> Files.exists(target.resolve("new/created.txt")));
+        Thread.sleep(500L);
+        stop(watching);
+        assertThat(copied).filteredOn(message -> message.endsWith("created.txt")).hasSize(1);
+    }
+
+    @Test
+    public void executeShouldKeepExcludedFiles() throws IOException, InterruptedException {
+        // given
+        mojo.setExcludes(List.of("**/*.keep"));
+        Files.createDirectories(target.resolve("sub"));
+        Files.writeString(target.resolve("sub/local.keep"), "local", StandardCharsets.UTF_8);
+        final var watching = start();
+
+        // when
+        FileUtils.deleteDirectory(source.resolve("sub").toFile());
+
+        // then
+        awaitCondition(() -> !Files.exists(target.resolve("sub/initial.txt")));
+        stop(watching);
+        assertThat(target.resolve("sub/local.keep")).exists();
+    }
+
+    @Test
+    public void copyAllAfterLostDeletionShouldDeleteOrphan() throws IOException {
+        // given
+        mojo.copyAll();
+        Files.delete(source.resolve("sub/initial.txt"));
+
+        // when
+        mojo.copyAll();
+
+        // then
+        assertThat(target.resolve("sub/initial.txt")).doesNotExist();
+        assertThat(target.resolve("sub")).isDirectory();
+    }
+
+    @Test
+    public void toStringShouldSucceed() {
+        // when
+        final var actual = mojo.toString();
+
+        // then
+        assertThat(actual).isEqualTo(MoreObjects.toStringHelper(mojo).add("file", source.toFile())
+                .add("into", target.toFile()).toString());
+    }
+
+    @AfterEach
+    public void cleanUpEach() throws IOException {
+        executor.shutdownNow();
+        FileUtils.deleteDirectory(new File("testarea/watch"));
+    }
+
+    private Future<?> start() throws InterruptedException {
+        final Future<?> watching = executor.submit(() -> {
+            mojo.execute();
+            return null;
+        });
+        awaitCondition(() -> Files.exists(target.resolve("sub/initial.txt")));
+        return watching;
+    }
+
+    private void stop(final Future<?> watching) throws InterruptedException {
+        watching.cancel(true);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)).isTrue();
+    }
+
+    private static void awaitCondition(final BooleanSupplier condition) throws InterruptedException {
+        final var deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).isLessThan(deadline);
+            Thread.sleep(20L);
+        }
+    }
+}